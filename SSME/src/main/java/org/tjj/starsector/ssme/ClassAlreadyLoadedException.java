@@ -1,30 +1,30 @@
-package org.tjj.starsector.ssme;
-
-@SuppressWarnings("serial")
-public class ClassAlreadyLoadedException extends Exception {
-
-	public ClassAlreadyLoadedException() {
-		// TODO Auto-generated constructor stub
-	}
-
-	public ClassAlreadyLoadedException(String message) {
-		super(message);
-		// TODO Auto-generated constructor stub
-	}
-
-	public ClassAlreadyLoadedException(Throwable cause) {
-		super(cause);
-		// TODO Auto-generated constructor stub
-	}
-
-	public ClassAlreadyLoadedException(String message, Throwable cause) {
-		super(message, cause);
-		// TODO Auto-generated constructor stub
-	}
-
-	public ClassAlreadyLoadedException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
-		super(message, cause, enableSuppression, writableStackTrace);
-		// TODO Auto-generated constructor stub
-	}
-
-}
+package org.tjj.starsector.ssme;
+
+@SuppressWarnings("serial")
+public class ClassAlreadyLoadedException extends Exception {
+
+	public ClassAlreadyLoadedException() {
+		// TODO Auto-generated constructor stub
+	}
+
+	public ClassAlreadyLoadedException(String message) {
+		super(message);
+		// TODO Auto-generated constructor stub
+	}
+
+	public ClassAlreadyLoadedException(Throwable cause) {
+		super(cause);
+		// TODO Auto-generated constructor stub
+	}
+
+	public ClassAlreadyLoadedException(String message, Throwable cause) {
+		super(message, cause);
+		// TODO Auto-generated constructor stub
+	}
+
+	public ClassAlreadyLoadedException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
+		super(message, cause, enableSuppression, writableStackTrace);
+		// TODO Auto-generated constructor stub
+	}
+
+}
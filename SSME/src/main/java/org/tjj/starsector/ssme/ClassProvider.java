@@ -1,43 +1,62 @@
-package org.tjj.starsector.ssme;
-
-import java.io.InputStream;
-
-public interface ClassProvider {
-
-	/**
-	 * 
-	 * Obtains the bytes for the specified class.
-	 * 
-	 * @param classname  Fully qualified binary name of the class. ('.' separator, e.g. "java.lang.String")
-	 * @return The bytes of the class
-	 * @throws ClassNotFoundException if the requested class could not be found
-	 */
-	public InputStream getClass(String classname) throws ClassNotFoundException;
-	
-
-
-	/**
-	 * return the discovered names of obfuscated types. 
-	 * @return
-	 */
-	public ObfuscationMap getObfuscationMap();
-	
-	/**
-	 * returns whether or not the specified classname exists within the scope of this ClassProvider.
-	 * 
-	 * @param classname
-	 * @return
-	 */
-	public boolean exists(String classname);
-	
-	/**
-	 * Stores the provided bytes for the specified class.
-	 * Note, may only be called during the earlyTransformations phase.
-	 * 
-	 * @param classname Fully qualified 'binary name' of the class.
-	 * @param bytes		Bytes to store. (a copy will be taken to avoid future modifications)
-	 * @throws ClassAlreadyLoadedException if the requested class has already been loaded by the class loader, it cannot be transformed.
-	 * @throws ClassNotFoundException if the requested class could not be found
-	 */
-	public void saveTransformation(String classname, byte[] classBytes) throws ClassAlreadyLoadedException;
-}
+package org.tjj.starsector.ssme;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Provides the bytes of classes, and stores their transformations.
+ * 
+ * Implementations must be thread safe; classes may be requested & saved by several threads at once (e.g. by the Sanitizer).
+ * 
+ */
+public interface ClassProvider {
+
+	/**
+	 * 
+	 * Obtains the bytes for the specified class.
+	 * 
+	 * @param classname  Fully qualified binary name of the class. ('.' separator, e.g. "java.lang.String")
+	 * @return The bytes of the class
+	 * @throws ClassNotFoundException if the requested class could not be found
+	 */
+	public InputStream getClass(String classname) throws ClassNotFoundException;
+	
+	/**
+	 * 
+	 * Obtains the bytes for the specified class, without copying them if they're held in memory.
+	 * Prefer this over getClass(...) when the bytes are going to be read in their entirety, e.g. by an ASM ClassReader.
+	 * 
+	 * @param classname  Fully qualified binary name of the class. ('.' separator, e.g. "java.lang.String")
+	 * @return The bytes of the class; which may be shared with other callers, so must not be modified.
+	 * @throws ClassNotFoundException if the requested class could not be found
+	 * @throws IOException if the class could not be read
+	 */
+	public byte[] getClassBytes(String classname) throws ClassNotFoundException, IOException;
+	
+
+
+	/**
+	 * return the discovered names of obfuscated types. 
+	 * @return
+	 */
+	public ObfuscationMap getObfuscationMap();
+	
+	/**
+	 * returns whether or not the specified classname exists within the scope of this ClassProvider.
+	 * 
+	 * @param classname
+	 * @return
+	 */
+	public boolean exists(String classname);
+	
+	/**
+	 * Stores the provided bytes for the specified class.
+	 * Note, may only be called during the earlyTransformations phase.
+	 * 
+	 * @param classname Fully qualified 'binary name' of the class.
+	 * @param bytes		Bytes to store. (a copy will be taken to avoid future modifications)
+	 * @throws ClassAlreadyLoadedException if the requested class has already been loaded by the class loader, it cannot be transformed.
+	 * @throws ClassNotFoundException if the requested class could not be found
+	 */
+	public void saveTransformation(String classname, byte[] classBytes) throws ClassAlreadyLoadedException;
+}
@@ -0,0 +1,283 @@
+package org.tjj.starsector.ssme;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides what becomes of the bytes of a transformed class, once the class has been loaded.
+ *
+ * The JVM doesn't ask for the bytes of a class again once it has defined it, so all that's left to use them is a mod interrogating the class;
+ * which is rare, so holding the bytes of every loaded class for the rest of the session is mostly wasted heap.
+ *
+ * @author TehJumpingJawa
+ *
+ */
+abstract class ClassRetention {
+
+	/**
+	 * selects the ClassRetention; "keep" (the default) holds the bytes for the entire session,
+	 * "spill" writes them to a temporary file from which they're read back if they're requested,
+	 * "drop" discards them, so requesting them fails.
+	 */
+	static final String RETENTION_PROPERTY = "org.tjj.starsector.ssme.store.retention";
+
+	protected final AtomicLong evictedClasses = new AtomicLong();
+	protected final AtomicLong evictedBytes = new AtomicLong();
+	protected final AtomicLong requests = new AtomicLong();
+	protected final AtomicLong requestedBytes = new AtomicLong();
+
+	/**
+	 *
+	 * @return the ClassRetention selected by the system properties.
+	 */
+	static ClassRetention create() {
+		final String retention = System.getProperty(RETENTION_PROPERTY, "keep");
+		switch(retention) {
+		case "keep":
+			return new KeepRetention();
+		case "spill":
+			return new SpillRetention();
+		case "drop":
+			return new DropRetention();
+		default:
+			throw new IllegalArgumentException("Unknown " + RETENTION_PROPERTY + ": " + retention);
+		}
+	}
+
+	/**
+	 *
+	 * @return false if the entries of loaded classes are kept as they are, so there's no need to offer them to evict(...).
+	 */
+	abstract boolean evicts();
+
+	/**
+	 * Called once for each loaded class, which may be on any thread.
+	 *
+	 * @param classname
+	 * @param entry the entry held for the class.
+	 * @param bytes the bytes of the class, as they were loaded.
+	 * @return the entry to hold in place of entry; which isn't available, if the bytes are gone.
+	 */
+	abstract ClassStore.Entry evict(String classname, ClassStore.Entry entry, byte[] bytes);
+
+	/**
+	 *
+	 * @param entry
+	 * @return true if the entry is one that evict(...) returned.
+	 */
+	abstract boolean isEvicted(ClassStore.Entry entry);
+
+	/**
+	 * Counts a request for the bytes of a class whose entry isn't available.
+	 *
+	 * @param classname
+	 * @return the exception with which to fail the request.
+	 */
+	ClassNotFoundException unavailable(String classname) {
+		requests.incrementAndGet();
+		return new ClassNotFoundException(Utils.BinaryClassName.toFilename(classname) + " has been loaded, and its transformed bytes dropped (" + RETENTION_PROPERTY + "=drop)");
+	}
+
+	/**
+	 *
+	 * @return the number of loaded classes whose bytes have been evicted.
+	 */
+	public long getEvictedClasses() {
+		return evictedClasses.get();
+	}
+
+	public long getEvictedBytes() {
+		return evictedBytes.get();
+	}
+
+	/**
+	 *
+	 * @return the number of times the bytes of an evicted class have been requested since.
+	 */
+	public long getRequests() {
+		return requests.get();
+	}
+
+	/**
+	 *
+	 * @return the total size of the evicted classes that have been read back.
+	 */
+	public long getRequestedBytes() {
+		return requestedBytes.get();
+	}
+
+	/**
+	 *
+	 * @return a summary of what's been evicted, and how often it's been requested since.
+	 */
+	String getStatistics() {
+		return getEvictedClasses() + " loaded classes (" + getEvictedBytes()/1024 + "KB) evicted, " + getRequests() + " requested since ("
+				+ getRequestedBytes()/1024 + "KB)";
+	}
+
+	/**
+	 * Holds the bytes of loaded classes, as the ClassStore holds them.
+	 */
+	private static final class KeepRetention extends ClassRetention {
+
+		@Override
+		boolean evicts() {
+			return false;
+		}
+
+		@Override
+		ClassStore.Entry evict(String classname, ClassStore.Entry entry, byte[] bytes) {
+			return entry;
+		}
+
+		@Override
+		boolean isEvicted(ClassStore.Entry entry) {
+			// nothing is ever evicted.
+			return false;
+		}
+
+		@Override
+		String getStatistics() {
+			return "all loaded classes kept";
+		}
+	}
+
+	/**
+	 * Appends the bytes of loaded classes to a temporary file; only their offsets remain on the heap.
+	 */
+	private static final class SpillRetention extends ClassRetention {
+
+		private final FileChannel file;
+		private long fileLength;
+
+		SpillRetention() {
+			try {
+				final File temp = File.createTempFile("ssme", ".spill");
+				temp.deleteOnExit();
+				// the channel stays open for the rest of the session.
+				@SuppressWarnings("resource")
+				final RandomAccessFile raf = new RandomAccessFile(temp, "rw");
+				file = raf.getChannel();
+			}
+			catch(IOException e) {
+				throw new IllegalStateException("Failed creating the spill file", e);
+			}
+		}
+
+		@Override
+		boolean evicts() {
+			return true;
+		}
+
+		@Override
+		ClassStore.Entry evict(String classname, ClassStore.Entry entry, byte[] bytes) {
+			final long offset;
+			synchronized(this) {
+				offset = fileLength;
+				fileLength += bytes.length;
+			}
+			try {
+				// positional writes of the reserved regions needn't be serialized.
+				final ByteBuffer source = ByteBuffer.wrap(bytes);
+				while(source.hasRemaining()) {
+					file.write(source, offset + source.position());
+				}
+			}
+			catch(IOException e) {
+				// the class stays held as it was.
+				System.out.println("Failed spilling " + classname + ": " + e);
+				return entry;
+			}
+			evictedClasses.incrementAndGet();
+			evictedBytes.addAndGet(bytes.length);
+			return new SpilledEntry(offset, bytes.length);
+		}
+
+		@Override
+		boolean isEvicted(ClassStore.Entry entry) {
+			return entry instanceof SpilledEntry;
+		}
+
+		/**
+		 * The location of a class within the spill file.
+		 */
+		private final class SpilledEntry extends ClassStore.Entry {
+			private final long offset;
+			private final int length;
+
+			SpilledEntry(long offset, int length) {
+				this.offset = offset;
+				this.length = length;
+			}
+
+			@Override
+			byte[] getBytes() {
+				final ByteBuffer destination = ByteBuffer.allocate(length);
+				try {
+					while(destination.hasRemaining()) {
+						if(file.read(destination, offset + destination.position())<0) {
+							throw new IllegalStateException("Spilled class is truncated");
+						}
+					}
+				}
+				catch(IOException e) {
+					throw new IllegalStateException("Failed reading a spilled class", e);
+				}
+				requests.incrementAndGet();
+				requestedBytes.addAndGet(length);
+				return destination.array();
+			}
+		}
+
+		@Override
+		String getStatistics() {
+			return super.getStatistics() + ", " + fileLengthKB() + "KB spilled";
+		}
+
+		private synchronized long fileLengthKB() {
+			return fileLength/1024;
+		}
+	}
+
+	/**
+	 * Discards the bytes of loaded classes.
+	 */
+	private static final class DropRetention extends ClassRetention {
+
+		/**
+		 * Stands in for the bytes of every dropped class.
+		 */
+		private final ClassStore.Entry dropped = new ClassStore.Entry() {
+			@Override
+			byte[] getBytes() {
+				throw new IllegalStateException("The bytes of a dropped class aren't available");
+			}
+
+			@Override
+			boolean isAvailable() {
+				return false;
+			}
+		};
+
+		@Override
+		boolean evicts() {
+			return true;
+		}
+
+		@Override
+		ClassStore.Entry evict(String classname, ClassStore.Entry entry, byte[] bytes) {
+			evictedClasses.incrementAndGet();
+			evictedBytes.addAndGet(bytes.length);
+			return dropped;
+		}
+
+		@Override
+		boolean isEvicted(ClassStore.Entry entry) {
+			return entry==dropped;
+		}
+	}
+}
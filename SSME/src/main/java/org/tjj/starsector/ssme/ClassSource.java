@@ -0,0 +1,25 @@
+package org.tjj.starsector.ssme;
+
+/**
+ * Produces the bytes of classes on demand, rather than them being saved into a ClassProvider up front.
+ * 
+ * @author TehJumpingJawa
+ *
+ */
+public interface ClassSource {
+
+	/**
+	 * 
+	 * @param classname Fully qualified binary name of the class. ('.' separator, e.g. "java.lang.String")
+	 * @return whether this source produces the specified class.
+	 */
+	public boolean provides(String classname);
+	
+	/**
+	 * May be called concurrently, by any thread loading a class.
+	 * 
+	 * @param classname Fully qualified binary name of the class. ('.' separator, e.g. "java.lang.String")
+	 * @return The bytes of the class, or null if this source doesn't produce it.
+	 */
+	public byte[] getClassBytes(String classname);
+}
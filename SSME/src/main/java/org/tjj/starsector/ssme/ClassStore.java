@@ -0,0 +1,143 @@
+package org.tjj.starsector.ssme;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/**
+ * Decides the form in which the TransformationManager holds the bytes of the transformed classes.
+ *
+ * Every game class is saved into the TransformationManager when it's sanitized, and held for the entire session,
+ * so the form they're held in matters to a game that has little heap to spare.
+ *
+ * @author TehJumpingJawa
+ *
+ */
+abstract class ClassStore {
+
+	/**
+	 * selects the ClassStore; "heap" (the default), "compressed", "offheap" (direct ByteBuffers) or "mapped" (a memory mapped temporary file).
+	 */
+	static final String STORE_PROPERTY = "org.tjj.starsector.ssme.store";
+
+	/**
+	 * The bytes of a single class, as held by a ClassStore.
+	 */
+	static abstract class Entry {
+
+		/**
+		 * May be called concurrently, by any thread loading a class.
+		 *
+		 * @return the bytes of the class; which may be shared between callers, so mustn't be modified.
+		 */
+		abstract byte[] getBytes();
+		
+		/**
+		 * May be called concurrently, by any thread loading a class.
+		 * 
+		 * @return a stream of the bytes of the class.
+		 */
+		InputStream openStream() {
+			return new ByteArrayInputStream(getBytes());
+		}
+		
+		/**
+		 * 
+		 * @return false if the bytes are no longer held (as they've been dropped by the ClassRetention), so neither getBytes() nor openStream() may be called.
+		 */
+		boolean isAvailable() {
+			return true;
+		}
+	}
+
+	/**
+	 *
+	 * @return the ClassStore selected by the system properties.
+	 */
+	static ClassStore create() {
+		final String store = System.getProperty(STORE_PROPERTY, "heap");
+		switch(store) {
+		case "heap":
+			return new HeapClassStore();
+		case "compressed":
+			return new CompressedClassStore(Integer.getInteger(CompressedClassStore.HOT_SET_PROPERTY, CompressedClassStore.DEFAULT_HOT_SET_KB)*1024L);
+		case "offheap":
+			return new OffHeapClassStore(false);
+		case "mapped":
+			return new OffHeapClassStore(true);
+		default:
+			throw new IllegalArgumentException("Unknown " + STORE_PROPERTY + ": " + store);
+		}
+	}
+
+	/**
+	 * May be called concurrently.
+	 *
+	 * @param classname
+	 * @param bytes the bytes of the class; the caller mustn't modify them afterwards.
+	 * @return the entry to hold in place of the bytes.
+	 */
+	abstract Entry store(String classname, byte[] bytes);
+	
+	/**
+	 * Called when a class is saved again, with the entry that the new one replaced; which is no longer counted as held.
+	 * May be called concurrently.
+	 * 
+	 * @param entry an entry returned by store(...) (or one the ClassRetention replaced it with, which isn't counted)
+	 */
+	abstract void replaced(Entry entry);
+
+	/**
+	 *
+	 * @return a summary of what's held, and how it's been used.
+	 */
+	abstract String getStatistics();
+
+	/**
+	 * Holds the bytes as they are.
+	 */
+	private static final class HeapClassStore extends ClassStore {
+
+		private long storedBytes;
+		private int storedClasses;
+
+		@Override
+		Entry store(String classname, byte[] bytes) {
+			synchronized(this) {
+				storedBytes += bytes.length;
+				storedClasses++;
+			}
+			return new HeapEntry(bytes);
+		}
+		
+		@Override
+		void replaced(Entry entry) {
+			if(entry instanceof HeapEntry) {
+				synchronized(this) {
+					storedBytes -= ((HeapEntry)entry).bytes.length;
+					storedClasses--;
+				}
+			}
+		}
+
+		@Override
+		synchronized String getStatistics() {
+			return storedClasses + " classes in " + storedBytes/1024 + "KB";
+		}
+	}
+
+	/**
+	 * The bytes, as they are.
+	 */
+	static final class HeapEntry extends Entry {
+		private final byte[] bytes;
+
+		HeapEntry(byte[] bytes) {
+			this.bytes = bytes;
+		}
+
+		@Override
+		byte[] getBytes() {
+			return bytes;
+		}
+	}
+}
@@ -0,0 +1,192 @@
+package org.tjj.starsector.ssme;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+
+/**
+ * Index of every class in the jars of the launch classpath, built once from the jars' central directories.
+ *
+ * Looking a class up in the index is a single hash lookup, whether or not the class exists;
+ * whereas the system class loader searches each of its jars in turn, and does so every time.
+ * Classes are opened straight from the jar that holds them.
+ *
+ * The jars are searched in the order the JVM searches them (boot, extension, then application classpath, including any Class-Path manifest entries),
+ * so the 1st definition of a class wins, as it does when the class is loaded.
+ * If any part of the classpath can't be indexed (e.g. a directory), the index is incomplete,
+ * and a class that isn't in the index may still be found by the class loader.
+ *
+ * @author TehJumpingJawa
+ *
+ */
+final class ClasspathIndex {
+
+	private static final String CLASS_SUFFIX = ".class";
+	private static final String JAVAAGENT = "-javaagent:";
+
+	/**
+	 * the jar holding each class, keyed by the internal name of the class.
+	 */
+	private final Map<String, JarFile> classes;
+	private final boolean complete;
+
+	private ClasspathIndex(Map<String, JarFile> classes, boolean complete) {
+		this.classes = classes;
+		this.complete = complete;
+	}
+
+	/**
+	 *
+	 * @return an index of the classpath the JVM was launched with.
+	 */
+	static ClasspathIndex build() {
+		final long start = System.nanoTime();
+
+		final List<File> elements = new ArrayList<>();
+		boolean complete = addPath(elements, System.getProperty("sun.boot.class.path"));
+
+		final String extensionDirs = System.getProperty("java.ext.dirs");
+		if(extensionDirs!=null) {
+			for (String dir : extensionDirs.split(File.pathSeparator)) {
+				final File[] jars = new File(dir).listFiles();
+				if(jars!=null) {
+					for (File jar : jars) {
+						if(jar.getName().endsWith(".jar")) {
+							elements.add(jar);
+						}
+					}
+				}
+			}
+		}
+		complete &= addPath(elements, System.getProperty("java.class.path"));
+		
+		// agent jars (such as SSME's own) are appended to the application classpath.
+		for (String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+			if(argument.startsWith(JAVAAGENT)) {
+				final int options = argument.indexOf('=');
+				elements.add(new File(argument.substring(JAVAAGENT.length(), options<0 ? argument.length() : options)));
+			}
+		}
+
+		final Map<String, JarFile> classes = new HashMap<>(32*1024);
+		final Set<File> indexed = new HashSet<>();
+		final Deque<File> pending = new ArrayDeque<>(elements);
+		int jarCount = 0;
+		while(!pending.isEmpty()) {
+			final File element = pending.poll();
+			if(!element.exists()) {
+				// the class loader ignores missing classpath elements too.
+				continue;
+			}
+			if(!indexed.add(element.getAbsoluteFile())) {
+				continue;
+			}
+			if(!element.isFile()) {
+				complete = false;
+				continue;
+			}
+			try {
+				final JarFile jar = new JarFile(element);
+				jarCount++;
+				final Enumeration<JarEntry> entries = jar.entries();
+				while(entries.hasMoreElements()) {
+					final String name = entries.nextElement().getName();
+					if(name.endsWith(CLASS_SUFFIX)) {
+						final String classname = name.substring(0, name.length()-CLASS_SUFFIX.length());
+						if(!classes.containsKey(classname)) {
+							classes.put(classname, jar);
+						}
+					}
+				}
+				// the jars a jar's manifest refers to are searched after the jars that precede them.
+				final Manifest manifest = jar.getManifest();
+				final String classPath = manifest!=null ? manifest.getMainAttributes().getValue(Attributes.Name.CLASS_PATH) : null;
+				if(classPath!=null) {
+					final List<File> referenced = new ArrayList<>();
+					for (String url : classPath.trim().split("\\s+")) {
+						if(url.isEmpty()) {
+							continue;
+						}
+						if(url.contains(":") || url.contains("%")) {
+							// not a plain relative path; leave it to the class loader.
+							complete = false;
+							continue;
+						}
+						referenced.add(new File(element.getAbsoluteFile().getParentFile(), url.replace('/', File.separatorChar)));
+					}
+					for (int i = referenced.size()-1; i >= 0; i--) {
+						pending.addFirst(referenced.get(i));
+					}
+				}
+			}
+			catch(IOException e) {
+				complete = false;
+			}
+		}
+
+		System.out.println("ClasspathIndex of " + classes.size() + " classes in " + jarCount + " jars took " + (System.nanoTime()-start)/1000000 + "ms" + (complete ? "" : " (incomplete)"));
+		return new ClasspathIndex(classes, complete);
+	}
+
+	/**
+	 *
+	 * @return false if the path is absent, true otherwise.
+	 */
+	private static boolean addPath(List<File> elements, String path) {
+		if(path==null) {
+			return false;
+		}
+		for (String element : path.split(File.pathSeparator)) {
+			if(!element.isEmpty()) {
+				elements.add(new File(element));
+			}
+		}
+		return true;
+	}
+
+	/**
+	 *
+	 * @return true if every class on the classpath is in the index, so a class that isn't in it doesn't exist.
+	 */
+	boolean isComplete() {
+		return complete;
+	}
+
+	/**
+	 *
+	 * @param internalName e.g. "java/lang/String"
+	 * @return whether the class is in the index.
+	 */
+	boolean contains(String internalName) {
+		return classes.containsKey(internalName);
+	}
+
+	/**
+	 *
+	 * @param internalName e.g. "java/lang/String"
+	 * @return a stream of the class' bytes, or null if the class isn't in the index.
+	 * @throws IOException
+	 */
+	InputStream open(String internalName) throws IOException {
+		final JarFile jar = classes.get(internalName);
+		if(jar==null) {
+			return null;
+		}
+		final JarEntry entry = jar.getJarEntry(internalName.concat(CLASS_SUFFIX));
+		return entry!=null ? jar.getInputStream(entry) : null;
+	}
+}
@@ -0,0 +1,244 @@
+package org.tjj.starsector.ssme;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Holds the bytes of each class deflated (at the fastest level), and inflates them each time they're requested.
+ *
+ * The classes requested most recently are also held inflated, in a hot set of bounded size;
+ * so a class that's requested repeatedly (e.g. by several mods interrogating it) is only inflated once.
+ * The Deflaters, Inflaters & deflate buffers are pooled, as they're costly to create.
+ *
+ * @author TehJumpingJawa
+ *
+ */
+final class CompressedClassStore extends ClassStore {
+
+	/**
+	 * the size of the hot set, in KB.
+	 */
+	static final String HOT_SET_PROPERTY = "org.tjj.starsector.ssme.store.hotset";
+	static final int DEFAULT_HOT_SET_KB = 2048;
+
+	private final long hotSetLimit;
+	/**
+	 * in access order, so the least recently requested class is evicted first.
+	 */
+	private final LinkedHashMap<CompressedEntry, byte[]> hotSet = new LinkedHashMap<>(64, 0.75f, true);
+	private long hotSetBytes;
+
+	private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+	private final Queue<Inflater> inflaters = new ConcurrentLinkedQueue<>();
+	private final Queue<byte[]> buffers = new ConcurrentLinkedQueue<>();
+
+	private final AtomicLong storedClasses = new AtomicLong();
+	private final AtomicLong originalBytes = new AtomicLong();
+	private final AtomicLong storedBytes = new AtomicLong();
+	private final AtomicLong hotSetHits = new AtomicLong();
+	private final AtomicLong hotSetMisses = new AtomicLong();
+	private final AtomicLong inflatedBytes = new AtomicLong();
+
+	/**
+	 *
+	 * @param hotSetLimit the most bytes the hot set may hold; 0 to inflate a class every time it's requested.
+	 */
+	CompressedClassStore(long hotSetLimit) {
+		this.hotSetLimit = hotSetLimit;
+	}
+
+	@Override
+	Entry store(String classname, byte[] bytes) {
+		Deflater deflater = deflaters.poll();
+		if(deflater==null) {
+			deflater = new Deflater(Deflater.BEST_SPEED);
+		}
+		byte[] buffer = buffers.poll();
+		if(buffer==null || buffer.length < bytes.length) {
+			buffer = new byte[Math.max(bytes.length, 64*1024)];
+		}
+
+		final Entry entry;
+		try {
+			deflater.setInput(bytes);
+			deflater.finish();
+			// no larger than the original, otherwise there's nothing to be gained.
+			int length = 0;
+			while(!deflater.finished() && length < bytes.length) {
+				length += deflater.deflate(buffer, length, bytes.length-length);
+			}
+
+			if(deflater.finished()) {
+				entry = new CompressedEntry(Arrays.copyOf(buffer, length), bytes.length);
+				storedBytes.addAndGet(length);
+			}
+			else {
+				entry = new HeapEntry(bytes);
+				storedBytes.addAndGet(bytes.length);
+			}
+		}
+		finally {
+			deflater.reset();
+			deflaters.offer(deflater);
+			buffers.offer(buffer);
+		}
+
+		storedClasses.incrementAndGet();
+		originalBytes.addAndGet(bytes.length);
+		return entry;
+	}
+
+	@Override
+	void replaced(Entry entry) {
+		final int length;
+		if(entry instanceof CompressedEntry) {
+			final CompressedEntry compressed = (CompressedEntry)entry;
+			length = compressed.length;
+			storedBytes.addAndGet(-compressed.deflated.length);
+			synchronized(hotSet) {
+				if(hotSet.remove(compressed)!=null) {
+					hotSetBytes -= length;
+				}
+			}
+		}
+		else if(entry instanceof HeapEntry) {
+			length = entry.getBytes().length;
+			storedBytes.addAndGet(-length);
+		}
+		else {
+			return;
+		}
+		storedClasses.decrementAndGet();
+		originalBytes.addAndGet(-length);
+	}
+
+	/**
+	 * The deflated bytes of a class.
+	 * Compared by identity, as the key of the hot set.
+	 */
+	private final class CompressedEntry extends Entry {
+		private final byte[] deflated;
+		private final int length;
+
+		CompressedEntry(byte[] deflated, int length) {
+			this.deflated = deflated;
+			this.length = length;
+		}
+
+		@Override
+		byte[] getBytes() {
+			byte[] bytes;
+			synchronized(hotSet) {
+				bytes = hotSet.get(this);
+			}
+			if(bytes!=null) {
+				hotSetHits.incrementAndGet();
+				return bytes;
+			}
+			hotSetMisses.incrementAndGet();
+
+			bytes = inflate(deflated, length);
+			inflatedBytes.addAndGet(length);
+
+			if(length <= hotSetLimit) {
+				synchronized(hotSet) {
+					// another thread may have inflated it in the meantime.
+					final byte[] previous = hotSet.put(this, bytes);
+					if(previous==null) {
+						hotSetBytes += length;
+					}
+					final Iterator<Map.Entry<CompressedEntry, byte[]>> eldest = hotSet.entrySet().iterator();
+					while(hotSetBytes > hotSetLimit) {
+						hotSetBytes -= eldest.next().getKey().length;
+						eldest.remove();
+					}
+				}
+			}
+			return bytes;
+		}
+	}
+
+	private byte[] inflate(byte[] deflated, int length) {
+		Inflater inflater = inflaters.poll();
+		if(inflater==null) {
+			inflater = new Inflater();
+		}
+		try {
+			final byte[] bytes = new byte[length];
+			inflater.setInput(deflated);
+			int inflated = 0;
+			while(inflated < length) {
+				final int n = inflater.inflate(bytes, inflated, length-inflated);
+				if(n==0 && (inflater.finished() || inflater.needsInput())) {
+					throw new IllegalStateException("Stored class is truncated");
+				}
+				inflated += n;
+			}
+			return bytes;
+		}
+		catch(DataFormatException e) {
+			throw new IllegalStateException("Stored class is corrupt", e);
+		}
+		finally {
+			inflater.reset();
+			inflaters.offer(inflater);
+		}
+	}
+
+	public long getStoredClasses() {
+		return storedClasses.get();
+	}
+
+	/**
+	 *
+	 * @return the total size of the classes, as they were stored.
+	 */
+	public long getOriginalBytes() {
+		return originalBytes.get();
+	}
+
+	/**
+	 *
+	 * @return the total size of the classes, as they're held (excluding the hot set).
+	 */
+	public long getStoredBytes() {
+		return storedBytes.get();
+	}
+
+	public long getHotSetHits() {
+		return hotSetHits.get();
+	}
+
+	/**
+	 *
+	 * @return the number of requests that needed a class to be inflated.
+	 */
+	public long getHotSetMisses() {
+		return hotSetMisses.get();
+	}
+
+	public long getInflatedBytes() {
+		return inflatedBytes.get();
+	}
+
+	public long getHotSetBytes() {
+		synchronized(hotSet) {
+			return hotSetBytes;
+		}
+	}
+
+	@Override
+	String getStatistics() {
+		return getStoredClasses() + " classes in " + getStoredBytes()/1024 + "KB compressed (" + getOriginalBytes()/1024 + "KB uncompressed), hot set "
+				+ getHotSetBytes()/1024 + "/" + hotSetLimit/1024 + "KB, " + getHotSetHits() + " hits, " + getHotSetMisses() + " misses, "
+				+ getInflatedBytes()/1024 + "KB inflated";
+	}
+}
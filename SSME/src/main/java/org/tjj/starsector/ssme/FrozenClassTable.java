@@ -0,0 +1,254 @@
+package org.tjj.starsector.ssme;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * The early transformations, once they're complete; a table of fixed contents that's read, without locking, from the class loading hot path.
+ * The entry of a class may be replaced (once it's loaded), but no class is ever added or removed.
+ *
+ * The table is a minimal perfect hash (hash & displace): each class is assigned a bucket by its name's hash,
+ * and each bucket has a displacement that places all of its classes into distinct slots, of which there are as many as there are classes.
+ * So a lookup is a fixed sequence of 2 array reads & a single comparison, whether or not the class is present,
+ * and the table holds nothing but the names & entries themselves, in a pair of parallel arrays.
+ *
+ * Names whose hashes are identical can't be separated by any displacement, so they're held in a small overflow map.
+ *
+ * @author TehJumpingJawa
+ *
+ */
+final class FrozenClassTable {
+
+	/**
+	 * the average number of classes per bucket.
+	 */
+	private static final int BUCKET_SIZE = 4;
+
+	/**
+	 * how many displacements are tried for a bucket before the table is enlarged.
+	 */
+	private static final int MAX_DISPLACEMENT = 1 << 16;
+
+	private static final int GOLDEN = 0x9E3779B9;
+
+	private final String[] names;
+	private final ClassStore.Entry[] entries;
+	private final int[] displacements;
+	/**
+	 * null unless some names have identical hashes.
+	 */
+	private final Map<String, ClassStore.Entry> overflow;
+
+	private FrozenClassTable(String[] names, ClassStore.Entry[] entries, int[] displacements, Map<String, ClassStore.Entry> overflow) {
+		this.names = names;
+		this.entries = entries;
+		this.displacements = displacements;
+		this.overflow = overflow;
+	}
+
+	/**
+	 *
+	 * @param classes
+	 * @return a table of the supplied classes.
+	 */
+	static FrozenClassTable build(Map<String, ClassStore.Entry> classes) {
+		// names with identical hashes can't be placed apart, so all but the 1st are held aside.
+		final Map<Integer, String> byHash = new HashMap<>(classes.size()*2);
+		final List<String> placed = new ArrayList<>(classes.size());
+		Map<String, ClassStore.Entry> overflow = null;
+		for (Entry<String, ClassStore.Entry> entry : classes.entrySet()) {
+			final String name = entry.getKey();
+			if(byHash.put(name.hashCode(), name)==null) {
+				placed.add(name);
+			}
+			else {
+				if(overflow==null) {
+					overflow = new HashMap<>();
+				}
+				overflow.put(name, entry.getValue());
+			}
+		}
+
+		// a table that's only slightly larger than minimal is far quicker to build, should the minimal one prove elusive.
+		int tableSize = placed.size();
+		while(true) {
+			final FrozenClassTable table = place(placed, classes, tableSize, overflow);
+			if(table!=null) {
+				return table;
+			}
+			tableSize += tableSize/8 + 1;
+		}
+	}
+
+	/**
+	 *
+	 * @return the table, or null if it couldn't be built with the given number of slots.
+	 */
+	private static FrozenClassTable place(List<String> placed, Map<String, ClassStore.Entry> classes, int tableSize, Map<String, ClassStore.Entry> overflow) {
+		final int bucketCount = Math.max(1, placed.size()/BUCKET_SIZE);
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		final List<String>[] buckets = new List[bucketCount];
+		for (String name : placed) {
+			final int bucket = bucket(name.hashCode(), bucketCount);
+			if(buckets[bucket]==null) {
+				buckets[bucket] = new ArrayList<>(BUCKET_SIZE*2);
+			}
+			buckets[bucket].add(name);
+		}
+
+		// the largest buckets are placed first, while there are still plenty of free slots.
+		final Integer[] order = new Integer[bucketCount];
+		for (int i = 0; i < bucketCount; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return size(buckets[b]) - size(buckets[a]);
+			}
+		});
+
+		final String[] names = new String[Math.max(1, tableSize)];
+		final ClassStore.Entry[] entries = new ClassStore.Entry[names.length];
+		final int[] displacements = new int[bucketCount];
+		final BitSet taken = new BitSet(names.length);
+		final int[] slots = new int[placed.size()];
+
+		for (Integer bucket : order) {
+			final List<String> members = buckets[bucket];
+			if(members==null) {
+				break;
+			}
+			int displacement = 0;
+			while(!fits(members, displacement, names.length, taken, slots)) {
+				if(++displacement==MAX_DISPLACEMENT) {
+					return null;
+				}
+			}
+			displacements[bucket] = displacement;
+			for (int i = 0; i < members.size(); i++) {
+				final String name = members.get(i);
+				taken.set(slots[i]);
+				names[slots[i]] = name;
+				entries[slots[i]] = classes.get(name);
+			}
+		}
+		return new FrozenClassTable(names, entries, displacements, overflow);
+	}
+
+	private static int size(List<String> bucket) {
+		return bucket==null ? 0 : bucket.size();
+	}
+
+	/**
+	 * @return true if every member of the bucket is placed into a free slot of its own by the displacement; their slots are written into slots.
+	 */
+	private static boolean fits(List<String> members, int displacement, int tableSize, BitSet taken, int[] slots) {
+		for (int i = 0; i < members.size(); i++) {
+			final int slot = slot(members.get(i).hashCode(), displacement, tableSize);
+			if(taken.get(slot)) {
+				return false;
+			}
+			for (int j = 0; j < i; j++) {
+				if(slots[j]==slot) {
+					return false;
+				}
+			}
+			slots[i] = slot;
+		}
+		return true;
+	}
+
+	/**
+	 * The finalization mix of MurmurHash3; String.hashCode() alone is too regular for the names of a package to spread evenly.
+	 */
+	private static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	/**
+	 * @return h mapped onto [0, range), by multiplication rather than division.
+	 */
+	private static int reduce(int h, int range) {
+		return (int)(((h & 0xFFFFFFFFL) * range) >>> 32);
+	}
+
+	private static int bucket(int hash, int bucketCount) {
+		return reduce(mix(hash), bucketCount);
+	}
+
+	private static int slot(int hash, int displacement, int tableSize) {
+		return reduce(mix(hash + (displacement+1)*GOLDEN), tableSize);
+	}
+
+	/**
+	 *
+	 * @param classname
+	 * @return the entry of the class, or null if it's not in the table.
+	 */
+	ClassStore.Entry get(String classname) {
+		final int hash = classname.hashCode();
+		final int slot = slot(hash, displacements[bucket(hash, displacements.length)], names.length);
+		final String name = names[slot];
+		if(name!=null && name.hashCode()==hash && name.equals(classname)) {
+			return entries[slot];
+		}
+		return overflow==null ? null : overflow.get(classname);
+	}
+
+	/**
+	 * Replaces the entry of a class that's in the table.
+	 * Calls mustn't be concurrent with each other, though they may be with get(...); which returns either entry in the meantime.
+	 *
+	 * @param classname
+	 * @param entry
+	 */
+	void replace(String classname, ClassStore.Entry entry) {
+		final int hash = classname.hashCode();
+		final int slot = slot(hash, displacements[bucket(hash, displacements.length)], names.length);
+		final String name = names[slot];
+		if(name!=null && name.hashCode()==hash && name.equals(classname)) {
+			entries[slot] = entry;
+		}
+		else if(overflow!=null && overflow.containsKey(classname)) {
+			// replacing the value of an existing key doesn't restructure the map, so it's safe for unlocked readers.
+			overflow.put(classname, entry);
+		}
+		else {
+			throw new IllegalArgumentException(classname + " isn't in the table");
+		}
+	}
+
+	int size() {
+		return placedCount() + (overflow==null ? 0 : overflow.size());
+	}
+
+	private int placedCount() {
+		int count = 0;
+		for (String name : names) {
+			if(name!=null) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * @return the number of slots, which is the number of classes unless the table had to be enlarged to be built.
+	 */
+	int capacity() {
+		return names.length;
+	}
+}
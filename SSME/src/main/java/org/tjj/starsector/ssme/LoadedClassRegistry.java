@@ -0,0 +1,134 @@
+package org.tjj.starsector.ssme;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The set of classes the JVM has loaded, as TransformerProxy sees them.
+ *
+ * Every class the JVM loads is added, from whichever thread loads it, so the set holds tens of thousands of names for the entire session.
+ * Rather than the names themselves, it holds a 64 bit fingerprint of each; so each class costs the same few bytes however long its name,
+ * and no name is retained. (Distinct names with identical fingerprints are possible in principle, but not among any plausible number of classes.)
+ *
+ * The fingerprints are held in an open addressed table that's read without locking; adding is serialized, which is cheap next to loading a class.
+ *
+ * @author TehJumpingJawa
+ *
+ */
+final class LoadedClassRegistry {
+
+	private static final int INITIAL_CAPACITY = 16*1024;
+
+	/**
+	 * the table is enlarged before it's more than half full, so probe sequences stay short.
+	 */
+	private static final int MAX_LOAD_DIVISOR = 2;
+
+	/**
+	 * 0 marks an empty slot; no fingerprint is 0.
+	 */
+	private volatile AtomicLongArray table = new AtomicLongArray(INITIAL_CAPACITY);
+	private int size;
+
+	/**
+	 *
+	 * @param name
+	 * @return true if the name wasn't already present.
+	 */
+	boolean add(String name) {
+		final long fingerprint = fingerprint(name);
+		synchronized(this) {
+			AtomicLongArray t = table;
+			if(indexOf(t, fingerprint)>=0) {
+				return false;
+			}
+			if((size+1)*MAX_LOAD_DIVISOR > t.length()) {
+				t = resize(t, t.length()*2);
+			}
+			insert(t, fingerprint);
+			size++;
+			// published after it's been filled, so readers never see it partially copied.
+			table = t;
+			return true;
+		}
+	}
+
+	/**
+	 * Doesn't lock.
+	 *
+	 * @param name
+	 * @return whether the name has been added.
+	 */
+	boolean contains(String name) {
+		return indexOf(table, fingerprint(name))>=0;
+	}
+
+	synchronized int size() {
+		return size;
+	}
+
+	/**
+	 *
+	 * @return the bytes occupied by the table; at most 4*8 bytes per class.
+	 */
+	long getMemoryBytes() {
+		return table.length()*8L;
+	}
+
+	String getStatistics() {
+		return size() + " loaded classes in " + getMemoryBytes()/1024 + "KB";
+	}
+
+	private static AtomicLongArray resize(AtomicLongArray t, int capacity) {
+		final AtomicLongArray resized = new AtomicLongArray(capacity);
+		for (int i = 0; i < t.length(); i++) {
+			final long fingerprint = t.get(i);
+			if(fingerprint!=0) {
+				insert(resized, fingerprint);
+			}
+		}
+		return resized;
+	}
+
+	private static void insert(AtomicLongArray t, long fingerprint) {
+		final int mask = t.length()-1;
+		int slot = (int)fingerprint & mask;
+		while(t.get(slot)!=0) {
+			slot = (slot+1) & mask;
+		}
+		t.set(slot, fingerprint);
+	}
+
+	/**
+	 *
+	 * @return the slot holding the fingerprint, or -1 if it's absent.
+	 */
+	private static int indexOf(AtomicLongArray t, long fingerprint) {
+		final int mask = t.length()-1;
+		int slot = (int)fingerprint & mask;
+		long found;
+		while((found = t.get(slot))!=0) {
+			if(found==fingerprint) {
+				return slot;
+			}
+			slot = (slot+1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * FNV-1a over the chars of the name, finished with the final mix of MurmurHash3 so every bit of the fingerprint depends on every char.
+	 */
+	static long fingerprint(String name) {
+		long h = 0xCBF29CE484222325L;
+		for (int i = 0; i < name.length(); i++) {
+			h ^= name.charAt(i);
+			h *= 0x100000001B3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h!=0 ? h : 1;
+	}
+}
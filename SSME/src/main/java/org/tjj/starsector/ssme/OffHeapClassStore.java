@@ -0,0 +1,194 @@
+package org.tjj.starsector.ssme;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Holds the bytes of the classes outside of the Java heap, so they're neither counted against -Xmx nor scanned by the garbage collector.
+ *
+ * The classes are packed one after another into arenas; either direct ByteBuffers, or regions of a temporary file mapped into memory
+ * (which the OS can page out, rather than them having to stay resident).
+ * The only thing held on the heap for each class is its entry, of an arena & an offset into it.
+ *
+ * @author TehJumpingJawa
+ *
+ */
+final class OffHeapClassStore extends ClassStore {
+
+	/**
+	 * the size of each arena; a class larger than this is given an arena of its own.
+	 */
+	private static final int ARENA_SIZE = 4*1024*1024;
+
+	/**
+	 * null if the arenas are direct ByteBuffers.
+	 */
+	private final FileChannel file;
+	private long fileLength;
+
+	private ByteBuffer arena;
+	private int arenaCount;
+	private long reservedBytes;
+
+	private long storedBytes;
+	private int storedClasses;
+
+	/**
+	 *
+	 * @param mapped if true the arenas are mapped from a temporary file, otherwise they're direct ByteBuffers.
+	 */
+	OffHeapClassStore(boolean mapped) {
+		if(mapped) {
+			try {
+				final File temp = File.createTempFile("ssme", ".classes");
+				temp.deleteOnExit();
+				// the channel stays open for the rest of the session, as do the regions mapped from it.
+				@SuppressWarnings("resource")
+				final RandomAccessFile raf = new RandomAccessFile(temp, "rw");
+				file = raf.getChannel();
+			}
+			catch(IOException e) {
+				throw new IllegalStateException("Failed creating the class store's temporary file", e);
+			}
+		}
+		else {
+			file = null;
+		}
+	}
+
+	@Override
+	Entry store(String classname, byte[] bytes) {
+		final ByteBuffer destination;
+		final int offset;
+		synchronized(this) {
+			if(arena==null || arena.remaining() < bytes.length) {
+				arena = allocate(Math.max(ARENA_SIZE, bytes.length));
+			}
+			destination = arena;
+			offset = arena.position();
+			// reserved, so the copy can be done outside of the lock.
+			arena.position(offset + bytes.length);
+			storedBytes += bytes.length;
+			storedClasses++;
+		}
+
+		final ByteBuffer copy = destination.duplicate();
+		copy.position(offset);
+		copy.put(bytes);
+		return new OffHeapEntry(destination, offset, bytes.length);
+	}
+
+	@Override
+	void replaced(Entry entry) {
+		if(entry instanceof OffHeapEntry) {
+			synchronized(this) {
+				// the space it occupies in its arena isn't reused.
+				storedBytes -= ((OffHeapEntry)entry).length;
+				storedClasses--;
+			}
+		}
+	}
+
+	private ByteBuffer allocate(int size) {
+		arenaCount++;
+		reservedBytes += size;
+		if(file==null) {
+			return ByteBuffer.allocateDirect(size);
+		}
+		try {
+			final ByteBuffer mapped = file.map(FileChannel.MapMode.READ_WRITE, fileLength, size);
+			fileLength += size;
+			return mapped;
+		}
+		catch(IOException e) {
+			throw new IllegalStateException("Failed mapping " + size + " bytes of the class store's temporary file", e);
+		}
+	}
+
+	/**
+	 * The location of a class within an arena.
+	 */
+	private static final class OffHeapEntry extends Entry {
+		private final ByteBuffer arena;
+		private final int offset;
+		private final int length;
+
+		OffHeapEntry(ByteBuffer arena, int offset, int length) {
+			this.arena = arena;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		/**
+		 * @return a read-only view of the class' bytes.
+		 */
+		private ByteBuffer view() {
+			final ByteBuffer view = arena.asReadOnlyBuffer();
+			view.limit(offset + length).position(offset);
+			return view;
+		}
+
+		@Override
+		byte[] getBytes() {
+			final byte[] bytes = new byte[length];
+			view().get(bytes);
+			return bytes;
+		}
+
+		@Override
+		InputStream openStream() {
+			return new ByteBufferInputStream(view());
+		}
+	}
+
+	/**
+	 * Reads the bytes straight from an arena, without copying them onto the heap first.
+	 */
+	private static final class ByteBufferInputStream extends InputStream {
+		private final ByteBuffer buffer;
+
+		ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if(len==0) {
+				return 0;
+			}
+			if(!buffer.hasRemaining()) {
+				return -1;
+			}
+			final int n = Math.min(len, buffer.remaining());
+			buffer.get(b, off, n);
+			return n;
+		}
+
+		@Override
+		public int available() {
+			return buffer.remaining();
+		}
+
+		@Override
+		public long skip(long n) {
+			final int skipped = (int)Math.max(0, Math.min(n, buffer.remaining()));
+			buffer.position(buffer.position() + skipped);
+			return skipped;
+		}
+	}
+
+	@Override
+	synchronized String getStatistics() {
+		return storedClasses + " classes in " + storedBytes/1024 + "KB of " + arenaCount + (file==null ? " direct" : " mapped") + " arenas totalling "
+				+ reservedBytes/1024 + "KB";
+	}
+}
@@ -1,44 +1,60 @@
-package org.tjj.starsector.ssme;
-
-/**
- * 
- * ClassLoader fed by the TransformationManager.o
- * 
- * @author TehJumpingJawa
- *
- */
-final class SanitizedClassLoader extends ClassLoader {
-
-	private TransformationManager cp;
-	
-	SanitizedClassLoader(TransformationManager cp, ClassLoader parent) {
-		super(parent);
-		this.cp = cp;
-	}
-
-	@Override
-	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
-
-		Class<?> result = super.findLoadedClass(name);
-		if(result!=null) {
-			return result;
-		}
-
-		byte [] bytes;
-		
-		// if the class has already been loaded, or there are no transformed bytes for the given class
-		// then defer it to the super implementation (which in turn defers to the parent)
-		if(TransformerProxy.getInstance(null).isLoaded(Utils.BinaryClassName.toInternalName(name)) || (bytes = cp.getTransformedClass(name))==null) {
-//			System.out.println("defering class " + name);
-			result = super.loadClass(name, resolve);
-		}
-		else {
-//			System.out.println("defining class " + name);
-			result = defineClass(name, bytes, 0, bytes.length);
-		}
-		if(resolve) {
-			resolveClass(result);
-		}
-		return result;
-	}
-}
+package org.tjj.starsector.ssme;
+
+/**
+ * 
+ * ClassLoader fed by the TransformationManager.o
+ * 
+ * @author TehJumpingJawa
+ *
+ */
+final class SanitizedClassLoader extends ClassLoader {
+
+	private TransformationManager cp;
+	
+	SanitizedClassLoader(TransformationManager cp, ClassLoader parent) {
+		super(parent);
+		this.cp = cp;
+	}
+
+	@Override
+	protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+
+		Class<?> result = super.findLoadedClass(name);
+		if(result!=null) {
+			return result;
+		}
+
+		byte [] bytes;
+		
+		// if the class has already been loaded, or there are no transformed bytes for the given class
+		// then defer it to the super implementation (which in turn defers to the parent)
+		if(TransformerProxy.getInstance(null).isLoaded(Utils.BinaryClassName.toInternalName(name)) || (bytes = getTransformedClass(name))==null) {
+//			System.out.println("defering class " + name);
+			result = super.loadClass(name, resolve);
+		}
+		else {
+//			System.out.println("defining class " + name);
+			result = defineClass(name, bytes, 0, bytes.length);
+			cp.classLoaded(name, bytes);
+		}
+		if(resolve) {
+			resolveClass(result);
+		}
+		return result;
+	}
+	
+	/**
+	 * 
+	 * @param name
+	 * @return the transformed bytes of the class, or null if it has none.
+	 * @throws ClassNotFoundException if its transformed bytes were dropped after it was loaded.
+	 */
+	private byte[] getTransformedClass(String name) throws ClassNotFoundException {
+		try {
+			return cp.getTransformedClass(name);
+		}
+		catch(IllegalStateException e) {
+			throw new ClassNotFoundException(name, e);
+		}
+	}
+}
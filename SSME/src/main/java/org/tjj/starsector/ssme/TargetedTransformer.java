@@ -0,0 +1,31 @@
+package org.tjj.starsector.ssme;
+
+/**
+ * A ClassTransformer that declares which classes it performs late transformations upon.
+ *
+ * doLateTransformation(...) is then only called for the classes it targets, rather than for every class the JVM loads
+ * (most of which are JDK & library classes that no mod touches).
+ * A ClassTransformer that doesn't implement this interface is called for every class, as before.
+ *
+ * @author TehJumpingJawa
+ *
+ */
+public interface TargetedTransformer extends ClassTransformer {
+
+	/**
+	 * The target of every class.
+	 */
+	public static final String ALL = "*";
+
+	/**
+	 * Called once, after init(...), when the transformer is registered.
+	 *
+	 * Each target is one of:
+	 * an exact binary class name, e.g. "com.fs.starfarer.api.campaign.CampaignUIAPI";
+	 * a prefix followed by '*', e.g. "com.fs.starfarer.api.*" (the package, and its subpackages) or "com.fs.starfarer.api.Global$*" (the inner classes of Global);
+	 * or ALL.
+	 *
+	 * @return the targets of doLateTransformation(...); an empty array if it should never be called, or null for every class.
+	 */
+	public String[] getLateTransformationTargets();
+}
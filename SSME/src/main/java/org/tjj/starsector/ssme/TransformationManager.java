@@ -1,163 +1,417 @@
-package org.tjj.starsector.ssme;
-
-import java.io.ByteArrayInputStream;
-import java.io.File;
-import java.io.InputStream;
-import java.net.MalformedURLException;
-import java.net.URL;
-import java.util.HashMap;
-
-/**
- * 
- * Stores the bytecode of all transformed classes.
- * Provides these bytes to the TransformerProxy when each class is loaded by the JVM. 
- * 
- * @author TehJumpingJawa
- *
- */
-class TransformationManager implements ClassProvider {
-	
-	/**
-	 * Once early transformations have been completed, the transformation pool becomes read only.
-	 */
-	private boolean readOnly = false;
-
-
-
-	public final ObfuscationMap obfuscationMap;
-	
-	/**
-	 * the bytes of all transformed classes.
-	 * (classes that have been modified at runtime) 
-	 */
-	private HashMap<String, byte[]> transformedClassData = new HashMap<>();
-
-	/**
-	 * The class loader into which SSME mods are loaded.
-	 * This isolation prevents SSME mods from modify their own Transformer classes/libraries, or those of other SSME mods. 
-	 */
-	private ModClassLoader modLoader;
-	
-	private static TransformationManager instance;
-
-	
-	private TransformationManager() {
-		
-		String devCp = System.getProperty("org.tjj.starsector.ssme.dev.classpath");
-		URL [] baseModCp;
-		if(devCp==null) {
-			baseModCp = new URL[0];
-		}
-		else {
-			String [] cpElements = devCp.split(File.pathSeparator);
-			baseModCp = new URL[cpElements.length];
-			for (int i = 0; i < cpElements.length; i++) {
-				try {
-					baseModCp[i] = new File(cpElements[i]).toURI().toURL();
-				} catch (MalformedURLException e) {
-					e.printStackTrace();
-					// fail silently on bad path elements.
-				}
-			}
-		}
-		
-		modLoader = new ModClassLoader(baseModCp, StarsectorModExpander.class.getClassLoader());
-		
-		obfuscationMap = new ObfuscationMap(this);
-	}
-	
-	/**
-	 * returns the ClassLoader that should be used to load SSME mod code.
-	 * 
-	 * @return
-	 */
-	ModClassLoader getModClassLoader() {
-		return modLoader;
-	}
-
-	public static synchronized TransformationManager getInstance() {
-		if(instance==null) {
-			instance = new TransformationManager();
-		}
-		return instance;
-	}
-	
-	void earlyTransformationsComplete() {
-		readOnly = true;
-	}
-	
-	/**
-	 * Returns the bytes of a transformed class, or null if no transformations for the specified class have been recorded. 
-	 * 
-	 * @param classname
-	 * @return
-	 * @throws ClassNotFoundException
-	 */
-	byte[] getTransformedClass(String classname) {
-		return transformedClassData.get(classname);
-	}
-
-	/**
-	 * Returns the bytes for the specified classname.
-	 * Will return transformed bytes if present in the cache, otherwise it will fall back on loading the class's bytes from the system classloader. 
-	 * 
-	 */
-	@Override
-	public InputStream getClass(String classname) throws ClassNotFoundException {
-		final InputStream returnValue;
-
-		byte[] b = transformedClassData.get(classname);
-
-		if(b==null) {
-			returnValue = getClass().getResourceAsStream(Utils.BinaryClassName.toFilename(classname));
-			if(returnValue==null) {
-				throw new ClassNotFoundException(Utils.BinaryClassName.toFilename(classname) + " could not be found on the classpath");
-			}
-		}
-		else {
-			returnValue = new ByteArrayInputStream(b);
-		}
-		return returnValue;
-	}
-
-	@Override
-	public boolean exists(String classname) {
-		if(transformedClassData.containsKey(classname)) {
-			return true;
-		}
-		if(getClass().getResource(Utils.BinaryClassName.toFilename(classname))!=null) {
-			return true;
-		}
-		return false;
-	}	
-	
-	/**
-	 * When late transformations are performed, we store the transformed class.
-	 * This is so that mods further down the transformation order will see these changes if they interrogate a class
-	 * that was modified by a lateTransformation earlier in the transformation order. 
-	 * 
-	 * @param classname
-	 * @param bytes
-	 */
-	void storeTransformedClass(String classname, byte[] bytes) {
-		transformedClassData.put(classname, bytes);
-	}
-
-	@Override
-	public void saveTransformation(String classname, byte[] classBytes) throws ClassAlreadyLoadedException {
-		if(readOnly) throw new IllegalStateException("Early transformations are complete, and no-longer available.");
-		
-		byte[] b = transformedClassData.get(classname);
-		if(b!=null && TransformerProxy.getInstance(null).isLoaded(Utils.BinaryClassName.toInternalName(classname))) {
-			throw new ClassAlreadyLoadedException("Cannot save transformations to " + classname +", it has already been loaded into the JVM.");
-		}
-		else {
-			transformedClassData.put(classname, classBytes);
-		}
-	}
-
-	@Override
-	public ObfuscationMap getObfuscationMap() {
-		return obfuscationMap;
-	}
+package org.tjj.starsector.ssme;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * 
+ * Stores the bytecode of all transformed classes.
+ * Provides these bytes to the TransformerProxy when each class is loaded by the JVM. 
+ * 
+ * Classes may be loaded on any thread, concurrently with the ModValidator saving early transformations, so the store is lock-striped;
+ * saves take no lock of their own, and only a save that races the freeze waits for it.
+ * Once early transformations are complete, they're frozen into an immutable perfect hash table, which is read without any locking;
+ * the few classes stored by late transformations are held apart from it. 
+ * 
+ * @author TehJumpingJawa
+ *
+ */
+class TransformationManager implements ClassProvider {
+	
+	/**
+	 * the number of independently locked stripes each store is split into.
+	 */
+	private static final int STRIPES = 16;
+	
+	/**
+	 * enough for the sanitized game classes, which are all saved as early transformations.
+	 */
+	private static final int EXPECTED_CLASSES = 8192;
+	
+	/**
+	 * Once early transformations have been completed, the transformation pool becomes read only.
+	 */
+	private volatile boolean readOnly = false;
+	
+
+
+
+	public final ObfuscationMap obfuscationMap;
+	
+	/**
+	 * the bytes of the classes saved by early transformations, until they're complete.
+	 */
+	private final ConcurrentMap<String, ClassStore.Entry> transformedClassData = new ConcurrentHashMap<>(EXPECTED_CLASSES, 0.75f, STRIPES);
+	
+	/**
+	 * the contents of transformedClassData, frozen once early transformations are complete; null until then.
+	 */
+	private volatile FrozenClassTable frozenClassData;
+	
+	/**
+	 * holds the bytes of the early transformations, in whichever form the system properties select.
+	 */
+	private final ClassStore store = ClassStore.create();
+	
+	/**
+	 * decides what becomes of the bytes of the early transformations, once their classes are loaded.
+	 */
+	private final ClassRetention retention = ClassRetention.create();
+	
+	/**
+	 * the bytes of the classes stored by late transformations, which take precedence over those of early transformations.
+	 */
+	private final ConcurrentMap<String, byte[]> lateClassData = new ConcurrentHashMap<>(16, 0.75f, STRIPES);
+	
+	/**
+	 * if non-null, produces the bytes of the classes that haven't been saved into transformedClassData.
+	 * (classes that are sanitized as they're loaded)
+	 */
+	private volatile ClassSource deferredClasses;
+
+	/**
+	 * The class loader into which SSME mods are loaded.
+	 * This isolation prevents SSME mods from modify their own Transformer classes/libraries, or those of other SSME mods. 
+	 */
+	private ModClassLoader modLoader;
+	
+	/**
+	 * locates the untransformed classes.
+	 */
+	private final ClasspathIndex classpath = ClasspathIndex.build();
+	
+	private static TransformationManager instance;
+
+	
+	private TransformationManager() {
+		
+		String devCp = System.getProperty("org.tjj.starsector.ssme.dev.classpath");
+		URL [] baseModCp;
+		if(devCp==null) {
+			baseModCp = new URL[0];
+		}
+		else {
+			String [] cpElements = devCp.split(File.pathSeparator);
+			baseModCp = new URL[cpElements.length];
+			for (int i = 0; i < cpElements.length; i++) {
+				try {
+					baseModCp[i] = new File(cpElements[i]).toURI().toURL();
+				} catch (MalformedURLException e) {
+					e.printStackTrace();
+					// fail silently on bad path elements.
+				}
+			}
+		}
+		
+		modLoader = new ModClassLoader(baseModCp, StarsectorModExpander.class.getClassLoader());
+		
+		obfuscationMap = new ObfuscationMap(this);
+	}
+	
+	/**
+	 * returns the ClassLoader that should be used to load SSME mod code.
+	 * 
+	 * @return
+	 */
+	ModClassLoader getModClassLoader() {
+		return modLoader;
+	}
+
+	public static synchronized TransformationManager getInstance() {
+		if(instance==null) {
+			instance = new TransformationManager();
+		}
+		return instance;
+	}
+	
+	/**
+	 * Freezes the early transformations.
+	 * Must be called on the thread that saved them, or one that has waited for the threads that saved them.
+	 */
+	synchronized void earlyTransformationsComplete() {
+		if(readOnly) {
+			return;
+		}
+		final long start = System.nanoTime();
+		// a save that puts its entry after this is seen, sees readOnly once it has; and waits for the freeze to learn whether its entry was included.
+		readOnly = true;
+		final Map<String, ClassStore.Entry> frozen = new HashMap<>(transformedClassData);
+		frozenClassData = FrozenClassTable.build(frozen);
+		// only the entries that were frozen are swept; any put since belongs to a save that'll be rejected, and removes its own entry.
+		for (Entry<String, ClassStore.Entry> entry : frozen.entrySet()) {
+			transformedClassData.remove(entry.getKey(), entry.getValue());
+		}
+		System.out.println("TransformationManager froze its early transformations in " + (System.nanoTime()-start)/1000000 + "ms, and holds " + getStoreStatistics());
+	}
+	
+	/**
+	 * Supplies the classes that are produced on demand; any bytes saved into this TransformationManager take precedence over them.
+	 * 
+	 * @param source
+	 */
+	void setDeferredClasses(ClassSource source) {
+		deferredClasses = source;
+	}
+	
+	/**
+	 * Returns the bytes of a transformed class, or null if no transformations for the specified class have been recorded. 
+	 * 
+	 * @param classname
+	 * @return
+	 * @throws IllegalStateException if the class has transformations, but they've been dropped since it was loaded.
+	 */
+	byte[] getTransformedClass(String classname) {
+		byte[] b = lateClassData.get(classname);
+		if(b==null) {
+			final ClassStore.Entry entry = getEarlyTransformation(classname);
+			if(entry!=null) {
+				if(!entry.isAvailable()) {
+					// rather than have the class defined again from its untransformed bytes.
+					final ClassNotFoundException e = retention.unavailable(classname);
+					throw new IllegalStateException(e.getMessage(), e);
+				}
+				b = entry.getBytes();
+			}
+		}
+		if(b==null) {
+			b = getDeferredClass(classname);
+		}
+		return b;
+	}
+	
+	private byte[] getDeferredClass(String classname) {
+		final ClassSource source = deferredClasses;
+		return source!=null ? source.getClassBytes(classname) : null;
+	}
+
+	/**
+	 * Returns the bytes for the specified classname.
+	 * Will return transformed bytes if present in the cache, otherwise it will fall back on loading the class's bytes from the system classloader. 
+	 * 
+	 */
+	@Override
+	public InputStream getClass(String classname) throws ClassNotFoundException {
+		final InputStream returnValue;
+
+		byte[] b = lateClassData.get(classname);
+		if(b==null) {
+			final ClassStore.Entry entry = getEarlyTransformation(classname);
+			if(entry!=null) {
+				if(!entry.isAvailable()) {
+					throw retention.unavailable(classname);
+				}
+				// streamed from wherever the store holds the bytes.
+				return entry.openStream();
+			}
+			b = getDeferredClass(classname);
+		}
+
+		if(b==null) {
+			try {
+				returnValue = openUntransformedClass(classname);
+			}
+			catch(IOException e) {
+				throw new ClassNotFoundException(Utils.BinaryClassName.toFilename(classname) + " could not be read", e);
+			}
+			if(returnValue==null) {
+				throw new ClassNotFoundException(Utils.BinaryClassName.toFilename(classname) + " could not be found on the classpath");
+			}
+		}
+		else {
+			returnValue = new ByteArrayInputStream(b);
+		}
+		return returnValue;
+	}
+
+	/**
+	 * 
+	 * @param classname
+	 * @return the bytes saved by an early transformation, or null if there aren't any.
+	 */
+	private ClassStore.Entry getEarlyTransformation(String classname) {
+		FrozenClassTable frozen = frozenClassData;
+		if(frozen==null) {
+			final ClassStore.Entry b = transformedClassData.get(classname);
+			// if they were frozen in the meantime, transformedClassData may have been cleared before we looked.
+			if(b!=null || (frozen = frozenClassData)==null) {
+				return b;
+			}
+		}
+		return frozen.get(classname);
+	}
+
+	/**
+	 * Returns the bytes for the specified classname.
+	 * Transformed bytes are returned as they're held, untransformed bytes are read from the system classloader.
+	 */
+	@Override
+	public byte[] getClassBytes(String classname) throws ClassNotFoundException, IOException {
+		if(!lateClassData.containsKey(classname)) {
+			final ClassStore.Entry entry = getEarlyTransformation(classname);
+			if(entry!=null && !entry.isAvailable()) {
+				throw retention.unavailable(classname);
+			}
+		}
+		final byte[] b = getTransformedClass(classname);
+		if(b!=null) {
+			return b;
+		}
+		try (InputStream is = openUntransformedClass(classname)) {
+			if(is==null) {
+				throw new ClassNotFoundException(Utils.BinaryClassName.toFilename(classname) + " could not be found on the classpath");
+			}
+			return ByteStreams.toByteArray(is);
+		}
+	}
+
+	@Override
+	public boolean exists(String classname) {
+		if(lateClassData.containsKey(classname)) {
+			return true;
+		}
+		final ClassStore.Entry entry = getEarlyTransformation(classname);
+		if(entry!=null) {
+			// as getClass(...) fails for a dropped class, rather than falling back on its untransformed bytes.
+			return entry.isAvailable();
+		}
+		if(isDeferred(classname)) {
+			return true;
+		}
+		if(classpath.contains(Utils.BinaryClassName.toInternalName(classname))) {
+			return true;
+		}
+		if(!classpath.isComplete() && getClass().getResource(Utils.BinaryClassName.toFilename(classname))!=null) {
+			return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * 
+	 * @param classname
+	 * @return a stream of the class' bytes from the classpath, or null if it's not on the classpath.
+	 * @throws IOException
+	 */
+	private InputStream openUntransformedClass(String classname) throws IOException {
+		final InputStream is = classpath.open(Utils.BinaryClassName.toInternalName(classname));
+		if(is!=null || classpath.isComplete()) {
+			return is;
+		}
+		return getClass().getResourceAsStream(Utils.BinaryClassName.toFilename(classname));
+	}	
+	
+	private boolean isDeferred(String classname) {
+		final ClassSource source = deferredClasses;
+		return source!=null && source.provides(classname);
+	}
+	
+	/**
+	 * Called once a class has been defined from its transformed bytes (and not before, as the define may yet fail, and be retried);
+	 * the bytes held for the class' early transformation are then evicted, should the retention policy demand it.
+	 * 
+	 * @param classname
+	 * @param bytes the bytes the class was defined from.
+	 */
+	void classLoaded(String classname, byte[] bytes) {
+		if(!retention.evicts()) {
+			return;
+		}
+		// serialized, so a class loaded by more than one loader is only evicted once.
+		synchronized(retention) {
+			final FrozenClassTable frozen = frozenClassData;
+			if(frozen!=null) {
+				final ClassStore.Entry entry = frozen.get(classname);
+				if(entry!=null && !retention.isEvicted(entry)) {
+					final ClassStore.Entry evicted = retention.evict(classname, entry, bytes);
+					if(evicted!=entry) {
+						frozen.replace(classname, evicted);
+						store.replaced(entry);
+					}
+				}
+			}
+			else {
+				final ClassStore.Entry entry = transformedClassData.get(classname);
+				if(entry!=null && !retention.isEvicted(entry)) {
+					final ClassStore.Entry evicted = retention.evict(classname, entry, bytes);
+					// if they were frozen in the meantime, the entry is absent, and the class stays as it was frozen.
+					if(evicted!=entry && transformedClassData.replace(classname, entry, evicted)) {
+						store.replaced(entry);
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * When late transformations are performed, we store the transformed class.
+	 * This is so that mods further down the transformation order will see these changes if they interrogate a class
+	 * that was modified by a lateTransformation earlier in the transformation order. 
+	 * 
+	 * @param classname
+	 * @param bytes
+	 */
+	void storeTransformedClass(String classname, byte[] bytes) {
+		lateClassData.put(classname, bytes);
+	}
+
+	/**
+	 * Doesn't lock, unless it races earlyTransformationsComplete(); in which case the save is either frozen, or rejected.
+	 */
+	@Override
+	public void saveTransformation(String classname, byte[] classBytes) throws ClassAlreadyLoadedException {
+		if(readOnly) throw new IllegalStateException("Early transformations are complete, and no-longer available.");
+		
+		ClassStore.Entry b = transformedClassData.get(classname);
+		if((b!=null || isDeferred(classname)) && TransformerProxy.getInstance(null).isLoaded(Utils.BinaryClassName.toInternalName(classname))) {
+			throw new ClassAlreadyLoadedException("Cannot save transformations to " + classname +", it has already been loaded into the JVM.");
+		}
+		
+		final ClassStore.Entry entry = store.store(classname, classBytes);
+		final ClassStore.Entry replaced = transformedClassData.put(classname, entry);
+		if(!readOnly) {
+			// the freeze hasn't begun, so it'll see the entry.
+			if(replaced!=null) {
+				store.replaced(replaced);
+			}
+			return;
+		}
+		
+		final FrozenClassTable frozen;
+		synchronized(this) {
+			// the freeze has begun, so it'll have been published once we hold the monitor it's made under.
+			frozen = frozenClassData;
+		}
+		if(replaced!=null && frozen.get(classname)!=replaced) {
+			store.replaced(replaced);
+		}
+		if(frozen.get(classname)!=entry) {
+			transformedClassData.remove(classname, entry);
+			store.replaced(entry);
+			throw new IllegalStateException("Early transformations are complete, and no-longer available.");
+		}
+	}
+
+	/**
+	 * 
+	 * @return a summary of the bytes held for early transformations, and of how they've been requested.
+	 */
+	String getStoreStatistics() {
+		return store.getStatistics() + "; " + retention.getStatistics();
+	}
+
+	@Override
+	public ObfuscationMap getObfuscationMap() {
+		return obfuscationMap;
+	}
 }
\ No newline at end of file
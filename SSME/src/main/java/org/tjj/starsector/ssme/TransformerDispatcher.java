@@ -0,0 +1,205 @@
+package org.tjj.starsector.ssme;
+
+import java.util.Arrays;
+
+/**
+ * Selects the transformers whose late transformations target a class, in the order they were registered.
+ *
+ * The targets of every TargetedTransformer are compiled into a trie of internal class names;
+ * so selecting the transformers for a class is a walk along its name, which for the great majority of classes
+ * (that no transformer targets) ends within the first few chars.
+ *
+ * Immutable; TransformerProxy compiles a new one each time a transformer is registered.
+ *
+ * @author TehJumpingJawa
+ *
+ */
+final class TransformerDispatcher {
+
+	private static final ClassTransformer[] NONE = new ClassTransformer[0];
+
+	private final ClassTransformer[] transformers;
+
+	/**
+	 * the indices of the transformers that target every class.
+	 */
+	private final long[] all;
+	private final ClassTransformer[] allTransformers;
+	private final boolean anyTargetsAll;
+	private final int targetedCount;
+
+	private final Node root = new Node();
+
+	/**
+	 * A char of a target, and the transformers whose targets end there.
+	 */
+	private static final class Node {
+		private char[] keys = new char[0];
+		private Node[] children = new Node[0];
+		/**
+		 * the indices of the transformers targeting the names prefixed by the chars leading to this node.
+		 */
+		private long[] prefixed;
+		/**
+		 * the indices of the transformers targeting the name spelt by the chars leading to this node.
+		 */
+		private long[] exact;
+
+		Node child(char c) {
+			for (int i = 0; i < keys.length; i++) {
+				if(keys[i]==c) {
+					return children[i];
+				}
+			}
+			return null;
+		}
+
+		Node addChild(char c) {
+			Node child = child(c);
+			if(child==null) {
+				child = new Node();
+				keys = Arrays.copyOf(keys, keys.length+1);
+				keys[keys.length-1] = c;
+				children = Arrays.copyOf(children, children.length+1);
+				children[children.length-1] = child;
+			}
+			return child;
+		}
+	}
+
+	/**
+	 *
+	 * @param transformers in the order their transformations are performed.
+	 */
+	TransformerDispatcher(ClassTransformer[] transformers) {
+		this.transformers = transformers;
+		final int words = (transformers.length+63)/64;
+		all = new long[words];
+
+		boolean anyTargetsAll = false;
+		int targetedCount = 0;
+		for (int i = 0; i < transformers.length; i++) {
+			final String[] targets = transformers[i] instanceof TargetedTransformer ? ((TargetedTransformer)transformers[i]).getLateTransformationTargets() : null;
+			if(targets==null) {
+				set(all, i);
+				anyTargetsAll = true;
+				continue;
+			}
+			targetedCount++;
+			for (String target : targets) {
+				if(target.equals(TargetedTransformer.ALL)) {
+					set(all, i);
+					anyTargetsAll = true;
+					continue;
+				}
+				final boolean prefix = target.endsWith("*");
+				final String name = Utils.BinaryClassName.toInternalName(prefix ? target.substring(0, target.length()-1) : target);
+				Node node = root;
+				for (int c = 0; c < name.length(); c++) {
+					node = node.addChild(name.charAt(c));
+				}
+				if(prefix) {
+					if(node.prefixed==null) {
+						node.prefixed = new long[words];
+					}
+					set(node.prefixed, i);
+				}
+				else {
+					if(node.exact==null) {
+						node.exact = new long[words];
+					}
+					set(node.exact, i);
+				}
+			}
+		}
+		this.anyTargetsAll = anyTargetsAll;
+		this.targetedCount = targetedCount;
+		allTransformers = anyTargetsAll ? toTransformers(all) : NONE;
+	}
+
+	private static void set(long[] bits, int index) {
+		bits[index >>> 6] |= 1L << index;
+	}
+
+	/**
+	 *
+	 * @return every transformer, in the order they were registered.
+	 */
+	ClassTransformer[] getTransformers() {
+		return transformers;
+	}
+
+	/**
+	 *
+	 * @param internalName e.g. "com/fs/starfarer/api/Global"
+	 * @return the transformers that target the class, in the order they were registered; which mustn't be modified.
+	 */
+	ClassTransformer[] select(String internalName) {
+		if(targetedCount==0) {
+			// there's nothing to select between.
+			return transformers;
+		}
+
+		long[] selected = null;
+		Node node = root;
+		for (int c = 0; c < internalName.length() && node!=null; c++) {
+			node = node.child(internalName.charAt(c));
+			if(node!=null && node.prefixed!=null) {
+				selected = or(selected, node.prefixed);
+			}
+		}
+		if(node!=null && node.exact!=null) {
+			selected = or(selected, node.exact);
+		}
+
+		if(selected==null) {
+			return allTransformers;
+		}
+		if(anyTargetsAll) {
+			or(selected, all);
+		}
+		return toTransformers(selected);
+	}
+
+	/**
+	 *
+	 * @return into, or a copy of bits if into is null.
+	 */
+	private static long[] or(long[] into, long[] bits) {
+		if(into==null) {
+			return bits.clone();
+		}
+		for (int i = 0; i < into.length; i++) {
+			into[i] |= bits[i];
+		}
+		return into;
+	}
+
+	private ClassTransformer[] toTransformers(long[] bits) {
+		int count = 0;
+		for (long word : bits) {
+			count += Long.bitCount(word);
+		}
+		if(count==transformers.length) {
+			return transformers;
+		}
+		final ClassTransformer[] selected = new ClassTransformer[count];
+		int s = 0;
+		for (int w = 0; w < bits.length; w++) {
+			long word = bits[w];
+			while(word!=0) {
+				selected[s++] = transformers[(w << 6) + Long.numberOfTrailingZeros(word)];
+				word &= word-1;
+			}
+		}
+		return selected;
+	}
+
+	/**
+	 *
+	 * @return the number of transformers that declare their targets.
+	 */
+	int getTargetedCount() {
+		return targetedCount;
+	}
+}
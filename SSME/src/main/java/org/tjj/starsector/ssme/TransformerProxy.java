@@ -1,98 +1,163 @@
-package org.tjj.starsector.ssme;
-
-import java.lang.instrument.ClassFileTransformer;
-import java.lang.instrument.IllegalClassFormatException;
-import java.lang.instrument.Instrumentation;
-import java.security.ProtectionDomain;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-
-import org.tjj.starsector.ssme.Utils.InternalClassName;
-/**
- * Handles communication between application code, and instrumentation api.
- * 
- * @author TehJumpingJawa
- *
- */
-public class TransformerProxy implements ClassFileTransformer {
-
-	/**
-	 * retrieve the TransformerProxy instance.
-	 * 1st call will use the Instrumentation parameter to initialise the instance.
-	 * Subsequent calls will ignore it.
-	 * 
-	 * @param inst
-	 * @return
-	 */
-	public static synchronized TransformerProxy getInstance(Instrumentation inst) {
-		if(instance==null) {
-			instance = new TransformerProxy(inst);
-		}
-		return instance;
-	}
-	
-	private static TransformerProxy instance;
-	// list of loaded classes.
-	private HashSet<String> loadedClasses = new HashSet<>();
-	// list of registered transformers
-	private List<ClassTransformer> transformers = new ArrayList<>();
-	private Instrumentation inst;
-	
-	private TransformerProxy(Instrumentation inst) {
-		this.inst = inst;
-	}
-
-	/**
-	 * 
-	 * 
-	 * @param className *internal* name of class ('/' separated)
-	 * @return
-	 */
-	boolean isLoaded(String className) {
-		return loadedClasses.contains(className);
-	}
-	
-	
-	/**
-	 * registers a Transformer so that it receives transform(...) events when classloading occurs.
-	 * @param ct
-	 */
-	void addTransformer(ClassTransformer ct) {
-		transformers.add(ct);
-	}
-	
-	@Override
-	public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, final byte[] classfileBuffer) throws IllegalClassFormatException {
-
-		loadedClasses.add(className);
-		
-		TransformationManager cc = TransformationManager.getInstance();
-
-		if(loader==cc.getModClassLoader() || className.startsWith("org/tjj/starsector/ssme")) {
-			return null;
-		}
-		
-		String binaryName = Utils.InternalClassName.toBinaryName(className);
-		byte[] newClass = cc.getTransformedClass(binaryName);
-		if(newClass==null) {
-			newClass = classfileBuffer;
-		}
-		for (ClassTransformer transformer : transformers) {
-			final byte [] transformedBytes = transformer.doLateTransformation(binaryName, newClass);
-			if(transformedBytes!=null) {
-//				System.out.println("transformed " + className + " from "  + loader);
-				newClass = transformedBytes;
-				cc.storeTransformedClass(binaryName, newClass);
-			}
-		}
-		
-		if(newClass!=classfileBuffer) {
-			return newClass;
-		}
-		else {
-			return null;
-		}
-	}
-
-}
+package org.tjj.starsector.ssme;
+
+import java.lang.instrument.ClassFileTransformer;
+import java.lang.instrument.IllegalClassFormatException;
+import java.lang.instrument.Instrumentation;
+import java.security.ProtectionDomain;
+import java.util.Arrays;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.ClassNode;
+import org.tjj.starsector.ssme.Utils.InternalClassName;
+/**
+ * Handles communication between application code, and instrumentation api.
+ * 
+ * The JVM may call transform(...) from any number of class loading threads at once, while the ModValidator is still registering transformers;
+ * so the loaded classes are held in a concurrent registry, and the transformers in an array that's replaced (rather than modified) when one is added.
+ * 
+ * @author TehJumpingJawa
+ *
+ */
+public class TransformerProxy implements ClassFileTransformer {
+
+	/**
+	 * retrieve the TransformerProxy instance.
+	 * 1st call will use the Instrumentation parameter to initialise the instance.
+	 * Subsequent calls will ignore it.
+	 * 
+	 * @param inst
+	 * @return
+	 */
+	public static synchronized TransformerProxy getInstance(Instrumentation inst) {
+		if(instance==null) {
+			instance = new TransformerProxy(inst);
+		}
+		return instance;
+	}
+	
+	private static TransformerProxy instance;
+	// list of loaded classes.
+	private final LoadedClassRegistry loadedClasses = new LoadedClassRegistry();
+	// list of registered transformers, copied on write.
+	private volatile TransformerDispatcher dispatcher = new TransformerDispatcher(new ClassTransformer[0]);
+	private Instrumentation inst;
+	// fetched once, so transform(...) needn't synchronize on TransformationManager.getInstance() for every class.
+	private final TransformationManager cc;
+	
+	private TransformerProxy(Instrumentation inst) {
+		this.inst = inst;
+		cc = TransformationManager.getInstance();
+	}
+
+	/**
+	 * 
+	 * 
+	 * Doesn't lock.
+	 * Classes loaded by the ModClassLoader, and SSME's own classes, aren't recorded.
+	 * 
+	 * @param className *internal* name of class ('/' separated)
+	 * @return
+	 */
+	boolean isLoaded(String className) {
+		return loadedClasses.contains(className);
+	}
+	
+	
+	/**
+	 * registers a Transformer so that it receives transform(...) events when classloading occurs.
+	 * (for the classes it targets, if it's a TargetedTransformer)
+	 * @param ct
+	 */
+	synchronized void addTransformer(ClassTransformer ct) {
+		final ClassTransformer[] transformers = dispatcher.getTransformers();
+		final ClassTransformer[] added = Arrays.copyOf(transformers, transformers.length+1);
+		added[added.length-1] = ct;
+		dispatcher = new TransformerDispatcher(added);
+	}
+	
+	/**
+	 * 
+	 * @return a summary of the loaded classes, and the registered transformers.
+	 */
+	String getStatistics() {
+		final TransformerDispatcher d = dispatcher;
+		return loadedClasses.getStatistics() + ", " + d.getTransformers().length + " transformers (" + d.getTargetedCount() + " targeted)";
+	}
+	
+	@Override
+	public byte[] transform(ClassLoader loader, String className, Class<?> classBeingRedefined, ProtectionDomain protectionDomain, final byte[] classfileBuffer) throws IllegalClassFormatException {
+
+		// bootstrap classes (loader==null) are passed on like any other; the dispatcher selects no transformers for names nothing targets.
+		if(loader==cc.getModClassLoader() || className.startsWith("org/tjj/starsector/ssme/")) {
+			return null;
+		}
+		
+		loadedClasses.add(className);
+		
+		String binaryName = Utils.InternalClassName.toBinaryName(className);
+		final byte[] held;
+		try {
+			held = cc.getTransformedClass(binaryName);
+		}
+		catch(IllegalStateException e) {
+			// the JVM ignores exceptions thrown by transformers, and would define the untransformed class;
+			// whereas an empty class fails the define, with a ClassFormatError.
+			System.out.println("SSME cannot define " + className + ": " + e.getMessage());
+			return new byte[0];
+		}
+		byte[] newClass = held!=null ? held : classfileBuffer;
+		// the class as parsed for the TreeTransformers; which, unless it's been modified since, is equivalent to newClass.
+		ClassReader reader = null;
+		ClassNode node = null;
+		boolean nodeModified = false;
+		for (ClassTransformer transformer : dispatcher.select(className)) {
+			if(transformer instanceof TreeTransformer) {
+				if(node==null) {
+					reader = new ClassReader(newClass);
+					node = new ClassNode();
+					reader.accept(node, 0);
+				}
+				nodeModified |= ((TreeTransformer)transformer).doLateTreeTransformation(binaryName, node);
+				continue;
+			}
+			if(nodeModified) {
+				newClass = write(reader, node);
+				cc.storeTransformedClass(binaryName, newClass);
+				nodeModified = false;
+			}
+			final byte [] transformedBytes = transformer.doLateTransformation(binaryName, newClass);
+			if(transformedBytes!=null) {
+//				System.out.println("transformed " + className + " from "  + loader);
+				newClass = transformedBytes;
+				cc.storeTransformedClass(binaryName, newClass);
+				// no longer equivalent, so re-parsed should another TreeTransformer follow.
+				node = null;
+			}
+		}
+		if(nodeModified) {
+			newClass = write(reader, node);
+			cc.storeTransformedClass(binaryName, newClass);
+		}
+		
+		if(newClass!=classfileBuffer) {
+			return newClass;
+		}
+		else {
+			return null;
+		}
+	}
+	
+	/**
+	 * 
+	 * @param reader the reader the node was parsed by, whose constant pool is copied rather than rebuilt.
+	 * @param node
+	 * @return the bytes of the node.
+	 */
+	private static byte[] write(ClassReader reader, ClassNode node) {
+		final ClassWriter cw = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+		node.accept(cw);
+		return cw.toByteArray();
+	}
+
+}
@@ -0,0 +1,30 @@
+package org.tjj.starsector.ssme;
+
+import org.objectweb.asm.tree.ClassNode;
+
+/**
+ * A ClassTransformer that performs its late transformations upon a parsed ClassNode, rather than upon the bytes of the class.
+ *
+ * When several mods transform the same class, TransformerProxy parses the class once, passes the same ClassNode through each
+ * TreeTransformer in mod order, and writes it once; rather than each of them parsing & writing the class in turn.
+ * Byte-level ClassTransformers may be interleaved with them; the node is only written (and re-parsed) when one of them needs the bytes.
+ *
+ * doLateTransformation(String, byte[]) isn't called upon a TreeTransformer, so it may simply return null.
+ *
+ * @author TehJumpingJawa
+ *
+ */
+public interface TreeTransformer extends ClassTransformer {
+
+	/**
+	 * Called for each class when it is loaded by the class loader (or each class it targets, if it's also a TargetedTransformer).
+	 *
+	 * The node is read with its frames as they are, and written with its maximum stack size & locals recomputed, but not its frames;
+	 * (computing them would need other classes to be loaded, in the middle of loading this one) so any change to the control flow must keep the frames valid.
+	 *
+	 * @param classname Name of the class to transform.
+	 * @param node the class, including the transformations of the transformers before this one; which may be modified.
+	 * @return true if the node was modified.
+	 */
+	public boolean doLateTreeTransformation(String classname, ClassNode node);
+}
@@ -1,17 +1,17 @@
-package org.tjj.starsector.ssme.asm;
-/**
- * All Java keywords.
- * Used by the deobfuscator for determining obfuscated class names.
- * 
- * @author TehJumpingJawa
- *
- */
-public class KeyWords {
-
-	public static final String[] list = new String[] { "abstract", "assert", "boolean", "break", "case", "catch", "class", "const", "continue", "default", "do", "double", "else", "enum", "extends", "final", "finally", "float", "for", "goto", "if", "implements", "import", "instanceof", "int",
-			"interface", "long", "native", "new", "package", "private", "protected", "public", "return", "short", "static", "strictfp", "super", "switch", "synchronized", "this", "throw", "throws", "transient", "try", "void", "volatile", "while", "false", "null", "true" };
-
-	private KeyWords() {
-	}
-
-}
+package org.tjj.starsector.ssme.asm;
+/**
+ * All Java keywords.
+ * Used by the deobfuscator for determining obfuscated class names.
+ * 
+ * @author TehJumpingJawa
+ *
+ */
+public class KeyWords {
+
+	public static final String[] list = new String[] { "abstract", "assert", "boolean", "break", "case", "catch", "class", "const", "continue", "default", "do", "double", "else", "enum", "extends", "final", "finally", "float", "for", "goto", "if", "implements", "import", "instanceof", "int",
+			"interface", "long", "native", "new", "package", "private", "protected", "public", "return", "short", "static", "strictfp", "super", "switch", "synchronized", "this", "throw", "throws", "transient", "try", "void", "volatile", "while", "false", "null", "true" };
+
+	private KeyWords() {
+	}
+
+}
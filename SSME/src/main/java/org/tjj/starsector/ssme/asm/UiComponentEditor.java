@@ -1,15 +1,15 @@
-package org.tjj.starsector.ssme.asm;
-
-public class UiComponentEditor {
-
-	private String componentText; 
-	private final UiEditor editor;
-	
-	
-	
-	public UiComponentEditor(UiEditor editor, String componentText) {
-		this.editor = editor;
-		this.componentText = componentText;
-	}
-
-}
+package org.tjj.starsector.ssme.asm;
+
+public class UiComponentEditor {
+
+	private String componentText; 
+	private final UiEditor editor;
+	
+	
+	
+	public UiComponentEditor(UiEditor editor, String componentText) {
+		this.editor = editor;
+		this.componentText = componentText;
+	}
+
+}
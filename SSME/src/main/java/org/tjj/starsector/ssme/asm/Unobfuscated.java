@@ -1,17 +1,17 @@
-package org.tjj.starsector.ssme.asm;
-
-import org.objectweb.asm.Type;
-
-public class Unobfuscated {
-	/**
-	 * ASM Type objects for commonly used (obfuscated) classes.
-	 * 
-	 * @author TehJumpingJawa
-	 *
-	 */
-	public static class Types {
-		public static final Type alignment = Type.getObjectType("com/fs/starfarer/api/ui/Alignment");
-		public static final Type glLauncher = Type.getObjectType("com/fs/starfarer/launcher/opengl/GLLauncher");
-		public static final Type string = Type.getObjectType("java/lang/String");
-	}	
+package org.tjj.starsector.ssme.asm;
+
+import org.objectweb.asm.Type;
+
+public class Unobfuscated {
+	/**
+	 * ASM Type objects for commonly used (obfuscated) classes.
+	 * 
+	 * @author TehJumpingJawa
+	 *
+	 */
+	public static class Types {
+		public static final Type alignment = Type.getObjectType("com/fs/starfarer/api/ui/Alignment");
+		public static final Type glLauncher = Type.getObjectType("com/fs/starfarer/launcher/opengl/GLLauncher");
+		public static final Type string = Type.getObjectType("java/lang/String");
+	}	
 }
\ No newline at end of file
@@ -0,0 +1,230 @@
+package org.tjj.starsector.ssme.sanitizer;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.objectweb.asm.ClassReader;
+import org.tjj.starsector.ssme.Utils.InternalClassName;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+
+/**
+ * The digests that let a Sanitizer run carry names & output over from the previous run.
+ *
+ * The fingerprint of a class describes its structure, without any of the obfuscated names the next game update may shuffle;
+ * classes whose fingerprint is unchanged keep their previous names.
+ * The mapping digest covers the names a class was given, and the environment of a class is the mapping digest of every class its bytecode refers to;
+ * a class whose bytes & environment are unchanged would be rewritten into the same bytes as last time.
+ *
+ */
+final class ClassDigests {
+
+	/**
+	 * stands in for the names of working set classes, which are meaningless from one game version to the next.
+	 */
+	private static final String OBFUSCATED = "?";
+
+	private static final byte CONSTANT_UTF8 = 1;
+
+	private static final Comparator<ClassMapping> BY_NAME = new Comparator<ClassMapping>() {
+		@Override
+		public int compare(ClassMapping a, ClassMapping b) {
+			return a.getName().compareTo(b.getName());
+		}
+	};
+
+	private ClassDigests() {
+	}
+
+	/**
+	 *
+	 * @param context
+	 * @param cm a class in the working set.
+	 * @param outer the class enclosing cm, or null if it's a top level class.
+	 * @return the structural fingerprint of the class.
+	 */
+	static HashCode fingerprint(SanitizerContext context, ClassMapping cm, ClassMapping outer) {
+		Hasher hasher = Hashing.murmur3_128().newHasher();
+
+		hasher.putInt(cm.getAccess());
+		final String name = cm.getName();
+		for (String packageElement : InternalClassName.getPackage(name).split("/")) {
+			putIdentifier(hasher, packageElement);
+		}
+		final String simpleName = InternalClassName.getSimpleName(name);
+		final int nested = simpleName.lastIndexOf('$');
+		if(nested>=0 && IdentifierClassifier.isAllNumbers(simpleName.substring(nested+1))) {
+			// anonymous classes are numbered in the order they appear within their enclosing class.
+			putString(hasher, simpleName.substring(nested));
+		}
+		else {
+			putIdentifier(hasher, simpleName);
+		}
+
+		if(outer!=null) {
+			hasher.putBytes(outer.getFingerprint().asBytes());
+		}
+
+		putString(hasher, shape(context, cm.getSuperName()));
+		for (String interfaceName : cm.getInterfaces()) {
+			putString(hasher, shape(context, interfaceName));
+		}
+
+		final ClassMapping.Method[] methods = cm.getMethods();
+		hasher.putInt(methods.length);
+		for (ClassMapping.Method method : methods) {
+			hasher.putInt(method.access);
+			putIdentifier(hasher, method.oldName);
+			putString(hasher, shapeDescriptor(context, method.desc));
+		}
+
+		final ClassMapping.Field[] fields = cm.getFields();
+		hasher.putInt(fields.length);
+		for (ClassMapping.Field field : fields) {
+			hasher.putInt(field.access);
+			putIdentifier(hasher, field.oldName);
+			putString(hasher, shapeDescriptor(context, field.desc));
+		}
+
+		return hasher.hash();
+	}
+
+	/**
+	 *
+	 * @param cm a class in the working set, whose names have been resolved.
+	 * @return digest of the names given to the class & its members.
+	 */
+	static HashCode mappingDigest(ClassMapping cm) {
+		Hasher hasher = Hashing.murmur3_128().newHasher();
+
+		putString(hasher, cm.getName());
+		putString(hasher, cm.getNewName());
+		hasher.putBoolean(cm.isPromotedToTopTier());
+
+		cm.getMethodTable().putDeclared(hasher);
+
+		// HashMap iteration order isn't something we want to depend upon.
+		for (Map.Entry<String, String> entry : new TreeMap<>(cm.getFieldMap()).entrySet()) {
+			putString(hasher, entry.getKey());
+			putString(hasher, entry.getValue());
+		}
+
+		return hasher.hash();
+	}
+
+	/**
+	 * Every class in the working set that the bytes refer to (conservatively; any constant that could be the name of one counts)
+	 * along with their ancestors, as their names are searched when resolving the members of the class referred to.
+	 *
+	 * @param context
+	 * @param bytes the original bytes of a class in the working set.
+	 * @return digest of the mappings the rewrite of the class depends upon.
+	 */
+	static HashCode environment(Sanitizer context, byte[] bytes) {
+		final ClassReader cr = new ClassReader(bytes);
+		final Set<ClassMapping> referenced = new LinkedHashSet<>();
+
+		for(int i = 1;i < cr.getItemCount();i++) {
+			final int offset = cr.getItem(i);
+			// the 2nd slot of long & double constants has no item.
+			if(offset==0 || bytes[offset-1]!=CONSTANT_UTF8) {
+				continue;
+			}
+			// class files hold modified UTF-8 (as DataInput does), which standard UTF-8 would misread where there are nulls or supplementary characters.
+			final String constant = ByteStreams.newDataInput(bytes, offset).readUTF();
+			addReferenced(context, constant, referenced);
+
+			// descriptors & signatures
+			int from = 0;
+			int start;
+			while((start = constant.indexOf('L', from))>=0) {
+				final int end = constant.indexOf(';', start);
+				if(end<0) {
+					break;
+				}
+				if(addReferenced(context, constant.substring(start+1, end), referenced)) {
+					from = end+1;
+				}
+				else {
+					from = start+1;
+				}
+			}
+		}
+
+		final Set<ClassMapping> environment = new LinkedHashSet<>();
+		for (ClassMapping cm : referenced) {
+			if(environment.add(cm)) {
+				for (ClassMapping supertype : context.getHierarchyIndex().getInheritanceOrder(cm)) {
+					if(supertype.isInWorkingSet()) {
+						environment.add(supertype);
+					}
+				}
+				for(ClassMapping parent = cm.getSuper();parent!=null;parent = parent.getSuper()) {
+					if(parent.isInWorkingSet()) {
+						environment.add(parent);
+					}
+				}
+			}
+		}
+
+		final ClassMapping[] sorted = environment.toArray(new ClassMapping[environment.size()]);
+		Arrays.sort(sorted, BY_NAME);
+
+		Hasher hasher = Hashing.murmur3_128().newHasher();
+		for (ClassMapping cm : sorted) {
+			hasher.putBytes(cm.getMappingDigest().asBytes());
+		}
+		return hasher.hash();
+	}
+
+	private static boolean addReferenced(Sanitizer context, String name, Set<ClassMapping> referenced) {
+		final ClassMapping cm = context.getFromWorkingSet(name);
+		if(cm!=null) {
+			referenced.add(cm);
+			return true;
+		}
+		return false;
+	}
+
+	private static String shape(SanitizerContext context, String classname) {
+		if(classname==null) {
+			return "";
+		}
+		return context.inWorkingSet(classname) ? OBFUSCATED : classname;
+	}
+
+	/**
+	 *
+	 * @return the descriptor, with the names of working set classes replaced.
+	 */
+	private static String shapeDescriptor(SanitizerContext context, String desc) {
+		final StringBuilder sb = new StringBuilder(desc.length());
+		int i = 0;
+		while(i < desc.length()) {
+			final char c = desc.charAt(i++);
+			sb.append(c);
+			if(c=='L') {
+				final int end = desc.indexOf(';', i);
+				sb.append(shape(context, desc.substring(i, end))).append(';');
+				i = end+1;
+			}
+		}
+		return sb.toString();
+	}
+
+	private static void putIdentifier(Hasher hasher, String identifier) {
+		putString(hasher, IdentifierClassifier.isObfuscated(identifier) ? OBFUSCATED : identifier);
+	}
+
+	private static void putString(Hasher hasher, String s) {
+		hasher.putInt(s.length());
+		hasher.putUnencodedChars(s);
+	}
+}
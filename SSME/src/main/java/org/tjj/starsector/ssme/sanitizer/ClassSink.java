@@ -0,0 +1,45 @@
+package org.tjj.starsector.ssme.sanitizer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Destination for the classes produced by Sanitizer.apply().
+ *
+ * Classes are added in the order they're committed, while later classes are still being rewritten.
+ *
+ */
+public interface ClassSink {
+
+	/**
+	 * 
+	 * @param className internal name of the sanitized class.
+	 * @param b the sanitized bytes; must not be modified after they've been added.
+	 * @throws IOException if an earlier write has already failed.
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	public void addClass(String className, byte[] b) throws IOException, InterruptedException, ExecutionException;
+	
+	/**
+	 * Blocks until every added class has been written.
+	 * 
+	 * @throws IOException
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	public void waitUntilComplete() throws IOException, InterruptedException, ExecutionException;
+	
+	/**
+	 * Abandons the write, if it hasn't completed; called when Sanitizer.apply() fails part way through.
+	 * Once it returns, nothing more is written, and no partial output is left posing as complete.
+	 */
+	public void abort();
+	
+	/**
+	 * 
+	 * @return the jar or folder the classes are written into.
+	 */
+	public File getOutput();
+}
@@ -0,0 +1,152 @@
+package org.tjj.starsector.ssme.sanitizer;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+import org.tjj.starsector.ssme.ClassProvider;
+import org.tjj.starsector.ssme.Utils;
+
+/**
+ * Header-only (skeleton) ClassNodes of the classes the Sanitizer references, but does not sanitize.
+ *
+ * The Sanitizer only needs their super class, interfaces, access flags & member signatures,
+ * so their code, debug info & frames are never read.
+ * The Sanitizer caches the ClassMapping built from each skeleton, so a skeleton is otherwise only read once, and not retained.
+ * The exception is the common JDK supertypes, which are preloaded before naming begins;
+ * they're held by the Sanitizer's own ClassSkeletons until it's closed, once the Sanitizer has finished rewriting.
+ *
+ */
+final class ClassSkeletons {
+
+	private static final int SKELETON_FLAGS = ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
+
+	/**
+	 * JDK supertypes that most of the game's classes inherit from.
+	 * They (and their own supertypes) are loaded ahead of time, while the obfuscated jars are being parsed.
+	 */
+	private static final List<String> COMMON_SUPERTYPES = Arrays.asList(
+			"java/lang/Object",
+			"java/lang/Enum",
+			"java/lang/Throwable",
+			"java/lang/Exception",
+			"java/lang/RuntimeException",
+			"java/lang/Error",
+			"java/lang/Number",
+			"java/lang/Thread",
+			"java/lang/Comparable",
+			"java/lang/Runnable",
+			"java/lang/Cloneable",
+			"java/lang/Iterable",
+			"java/lang/CharSequence",
+			"java/io/Serializable",
+			"java/io/Closeable",
+			"java/util/Collection",
+			"java/util/List",
+			"java/util/Set",
+			"java/util/Map",
+			"java/util/Iterator",
+			"java/util/Comparator",
+			"java/util/EventListener",
+			"java/util/ArrayList",
+			"java/util/HashMap",
+			"java/util/concurrent/Callable");
+
+	/**
+	 * the skeletons loaded by preload(...)
+	 */
+	private final ConcurrentMap<String, ClassNode> preloaded = new ConcurrentHashMap<>();
+	
+	private final ClassProvider pool;
+	
+	/**
+	 * once closed, the preloaded skeletons are released.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * 
+	 * @param pool the provider of the classes' bytes.
+	 */
+	ClassSkeletons(ClassProvider pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 *
+	 * @param classname internal name of the class.
+	 * @return the preloaded skeleton of the class, or one read afresh.
+	 * @throws ClassNotFoundException
+	 * @throws IOException
+	 */
+	ClassNode get(String classname) throws ClassNotFoundException, IOException {
+		final ClassNode skeleton = preloaded.get(classname);
+		return skeleton!=null ? skeleton : read(classname);
+	}
+
+	private ClassNode read(String classname) throws ClassNotFoundException, IOException {
+		final byte[] bytes = pool.getClassBytes(Utils.InternalClassName.toBinaryName(classname));
+		final ClassNode skeleton = new ClassNode();
+		new ClassReader(bytes).accept(skeleton, SKELETON_FLAGS);
+		return skeleton;
+	}
+	
+	/**
+	 * Releases the preloaded skeletons, and stops any preload still in progress.
+	 */
+	void close() {
+		closed = true;
+		preloaded.clear();
+	}
+
+	/**
+	 * Loads the skeletons of the common JDK supertypes, and everything they inherit from, in the background.
+	 *
+	 * @param executor
+	 */
+	void preload(ExecutorService executor) {
+		executor.submit(new Callable<Boolean>() {
+			@Override
+			public Boolean call() {
+				final long start = System.nanoTime();
+
+				final Deque<String> pending = new ArrayDeque<>(COMMON_SUPERTYPES);
+				while(!pending.isEmpty() && !closed) {
+					final String classname = pending.pop();
+					if(preloaded.containsKey(classname)) {
+						continue;
+					}
+					try {
+						final ClassNode skeleton = read(classname);
+						preloaded.put(classname, skeleton);
+						if(closed) {
+							// closed in the meantime.
+							preloaded.clear();
+						}
+						if(skeleton.superName!=null) {
+							pending.push(skeleton.superName);
+						}
+						@SuppressWarnings("unchecked")
+						List<String> interfaces = skeleton.interfaces;
+						for (String interfaceName : interfaces) {
+							pending.push(interfaceName);
+						}
+					} catch (ClassNotFoundException | IOException e) {
+						// not fatal; it'll be loaded (or reported) if it's ever actually needed.
+					}
+				}
+
+				System.out.println("ClassSkeletons preload took: " + (System.nanoTime()-start)/1000000 + "ms");
+				return Boolean.TRUE;
+			}
+		});
+	}
+}
@@ -0,0 +1,149 @@
+package org.tjj.starsector.ssme.sanitizer;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.objectweb.asm.Type;
+import org.objectweb.asm.signature.SignatureReader;
+import org.objectweb.asm.signature.SignatureWriter;
+
+/**
+ * Rewrites the class names within descriptors & generic signatures to their sanitized names.
+ *
+ * The same descriptors occur throughout the working set, so each one is only parsed & rebuilt the first time it's seen;
+ * subsequent occurrences are a single lookup.
+ * The results are shared by all the ClassRewriters of a Sanitizer run, so must only be requested once every class name has been resolved.
+ *
+ */
+public class DescriptorRemapper {
+
+	private final Sanitizer demap;
+
+	// kept apart, as the same string can be remapped differently as a descriptor & a signature.
+	private final ConcurrentMap<String, String> types = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, String> methodTypes = new ConcurrentHashMap<>();
+	private final ConcurrentMap<String, String> signatures = new ConcurrentHashMap<>();
+
+	DescriptorRemapper(Sanitizer demap) {
+		this.demap = demap;
+	}
+
+	/**
+	 *
+	 * @param desc a field descriptor, e.g. "[Lcom/fs/a;"
+	 * @return the descriptor with its class name (if obfuscated) replaced.
+	 */
+	String mapType(String desc) {
+		String result = types.get(desc);
+		if(result==null) {
+			result = deobfuscateType(Type.getType(desc)).toString();
+			// racing threads compute the same result, so whichever is kept doesn't matter.
+			types.putIfAbsent(desc, result);
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @param desc a method descriptor, e.g. "(Lcom/fs/a;I)V"
+	 * @return the descriptor with its class names (if obfuscated) replaced.
+	 */
+	String mapMethodType(String desc) {
+		String result = methodTypes.get(desc);
+		if(result==null) {
+			result = deobfuscateMethodType(desc);
+			methodTypes.putIfAbsent(desc, result);
+		}
+		return result;
+	}
+
+	/**
+	 *
+	 * @param signature a class, method or field generic signature.
+	 * @return the signature with its class names (if obfuscated) replaced.
+	 */
+	String mapSignature(String signature) {
+		String result = signatures.get(signature);
+		if(result==null) {
+			SignatureReader sr = new SignatureReader(signature);
+			SignatureWriter writer = new DeSignatureVisitor();
+			sr.accept(writer);
+			result = writer.toString();
+			signatures.putIfAbsent(signature, result);
+		}
+		return result;
+	}
+
+	private String deobfuscateMethodType(String desc) {
+		Type descriptor = Type.getMethodType(desc);
+
+		Type returnType = deobfuscateType(descriptor.getReturnType());
+
+		Type [] argumentTypes = descriptor.getArgumentTypes();
+		for (int i = 0; i < argumentTypes.length; i++) {
+			argumentTypes[i] = deobfuscateType(argumentTypes[i]);
+		}
+
+		descriptor = Type.getMethodType(returnType, argumentTypes);
+
+		return descriptor.toString();
+	}
+
+	private Type deobfuscateType(final Type paramType) {
+		Type t = paramType;
+		int dimensions = 0;
+		if(t.getSort()==Type.ARRAY) {
+			dimensions = t.getDimensions();
+			t = t.getElementType();
+		}
+		if(t.getSort()==Type.OBJECT) {
+			ClassMapping fieldType = demap.getFromWorkingSet(t.getInternalName());
+			if(fieldType!=null) {
+				StringBuilder sb = new StringBuilder();
+				while(dimensions-->0) {
+					sb.append('[');
+				}
+				sb.append('L').append(fieldType.getNewName()).append(';');
+				return Type.getType(sb.toString());
+			}
+			else {
+//				System.out.println("Not deobfuscating missing field type: " + t);
+			}
+		}
+		return paramType;
+	}
+
+	class DeSignatureVisitor extends SignatureWriter {
+
+		public DeSignatureVisitor() {
+		}
+
+		@Override
+		public void visitFormalTypeParameter(String name) {
+			super.visitFormalTypeParameter(name);
+		}
+
+		@Override
+		public void visitTypeVariable(String name) {
+			super.visitTypeVariable(name);
+		}
+
+		@Override
+		public void visitClassType(String name) {
+
+			ClassMapping cm = demap.getFromWorkingSet(name);
+			if(cm!=null) {
+				name = cm.getNewName();
+			}
+			else {
+//				System.out.println("Not deobfuscating generic classType: " + name);
+			}
+			super.visitClassType(name);
+		}
+
+		@Override
+		public void visitInnerClassType(String name) {
+			throw new NotImplementedException();
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package org.tjj.starsector.ssme.sanitizer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.objectweb.asm.Opcodes;
+
+/**
+ * Index of the class hierarchy, shared by every ClassMapping of a Sanitizer.
+ *
+ * Holds the working set in hierarchy order, and memoizes for each class the supertypes it inherits methods from,
+ * so that a MethodTable only needs to hold the methods its class declares.
+ *
+ */
+public class HierarchyIndex implements Opcodes {
+
+	private final SanitizerContext context;
+
+	private final ConcurrentMap<ClassMapping, ClassMapping[]> supertypes = new ConcurrentHashMap<>();
+	private final ConcurrentMap<ClassMapping, ClassMapping[]> inheritanceOrders = new ConcurrentHashMap<>();
+
+	private final List<List<ClassMapping>> depths = new ArrayList<>();
+
+	HierarchyIndex(SanitizerContext context) {
+		this.context = context;
+	}
+
+	/**
+	 * Orders the working set by its depth in the class hierarchy.
+	 * Only the working set's ancestors count towards the depth, everything else is named after itself.
+	 *
+	 * @param workingSet
+	 */
+	void build(ClassMapping[] workingSet) {
+		depths.clear();
+		for (ClassMapping cm : workingSet) {
+			int depth = 0;
+			for(ClassMapping parent = cm.getSuper();parent!=null;parent = parent.getSuper()) {
+				if(context.inWorkingSet(parent.getName())) {
+					depth++;
+				}
+			}
+			while(depths.size()<=depth) {
+				depths.add(new ArrayList<ClassMapping>());
+			}
+			depths.get(depth).add(cm);
+		}
+	}
+
+	/**
+	 *
+	 * @return the working set, grouped by depth; every class is in a later group than its working set ancestors.
+	 */
+	List<List<ClassMapping>> getDepths() {
+		return depths;
+	}
+
+	/**
+	 * The classes & interfaces that define the method interface to which the class must adhere;
+	 * its abstract parents (& their interfaces), its first concrete parent, and finally its own interfaces.
+	 *
+	 * Where two of them disagree on the name of a method, the later one wins.
+	 *
+	 * @param c
+	 * @return
+	 */
+	ClassMapping[] getSupertypes(ClassMapping c) {
+		ClassMapping[] result = supertypes.get(c);
+		if(result==null) {
+			Set<ClassMapping> interfaces = new LinkedHashSet<>();
+
+			ClassMapping parent = c.getSuper();
+			if(parent!=null) {
+				// find the first concrete (non-abstract) parent class
+				// along the way, add the abstract parents' and their interfaces.
+				while(ClassMapping.checkAccess(ACC_ABSTRACT, parent.getAccess())) {
+					interfaces.add(parent);
+					collectInterfaces(parent, interfaces);
+
+					parent = parent.getSuper();
+				}
+
+				//add the concrete parent
+				interfaces.add(parent);
+			}
+
+			//finally add the interfaces of this class
+			collectInterfaces(c, interfaces);
+
+			result = interfaces.toArray(new ClassMapping[interfaces.size()]);
+			final ClassMapping[] existing = supertypes.putIfAbsent(c, result);
+			if(existing!=null) {
+				result = existing;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Every supertype whose declared methods the class inherits, in the order they should be searched.
+	 * i.e. the supertypes, last first, each followed by its own inheritance order.
+	 *
+	 * @param c
+	 * @return
+	 */
+	ClassMapping[] getInheritanceOrder(ClassMapping c) {
+		ClassMapping[] result = inheritanceOrders.get(c);
+		if(result==null) {
+			final ClassMapping[] direct = getSupertypes(c);
+			final Set<ClassMapping> order = new LinkedHashSet<>();
+			for (int i = direct.length-1; i >= 0; i--) {
+				// if it's already present, so is everything it inherits from.
+				if(order.add(direct[i])) {
+					Collections.addAll(order, getInheritanceOrder(direct[i]));
+				}
+			}
+
+			result = order.toArray(new ClassMapping[order.size()]);
+			final ClassMapping[] existing = inheritanceOrders.putIfAbsent(c, result);
+			if(existing!=null) {
+				result = existing;
+			}
+		}
+		return result;
+	}
+
+	private void collectInterfaces(ClassMapping c, Set<ClassMapping> list) {
+		for (String interfaceName : c.getInterfaces()) {
+			ClassMapping interfaceClass = context.get(interfaceName);
+			if(list.add(interfaceClass)) {
+				// only collect this interface's own interfaces if it wasn't already in the collected list.
+				// this is both more efficient, and prevents infinite recursion in the event of circular interface dependencies.
+				collectInterfaces(interfaceClass, list);
+			}
+		}
+	}
+}
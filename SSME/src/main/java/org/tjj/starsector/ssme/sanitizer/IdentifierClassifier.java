@@ -0,0 +1,212 @@
+package org.tjj.starsector.ssme.sanitizer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.tjj.starsector.ssme.asm.KeyWords;
+
+/**
+ * Decides whether an identifier is obfuscated; shared by ClassMapping's isObfuscatedXXX predicates.
+ *
+ * An identifier is obfuscated if it's too short, contains illegal chars, is made up entirely of '0', 'o' & 'O',
+ * is an illegal identifier (a keyword, "Object" or "String"), or is 2 illegal identifiers concatenated.
+ *
+ * The illegal identifiers are compiled into a trie, so the concatenation check is a single walk along the identifier,
+ * testing the remainder only where a prefix is itself an illegal identifier.
+ * Verdicts are memoized in a fixed size table, as the same few obfuscated names occur over & over.
+ *
+ */
+public class IdentifierClassifier {
+
+	private static final int MEMO_SIZE = 1<<12;
+
+	private static final String[] EXTRA_ILLEGAL_IDENTIFIERS = {"Object", "String"};
+
+	/**
+	 * maps a char to its column in the transition table, or -1 if no illegal identifier contains it.
+	 */
+	private static final int[] columns = new int[128];
+	private static final int alphabetSize;
+
+	/**
+	 * transitions[state*alphabetSize + column] is the next state, or 0 if there's none. (the root, state 0, is never a destination)
+	 */
+	private static final int[] transitions;
+	private static final boolean[] accepting;
+
+	private static final int minIllegalIdentifierLength;
+	private static final int maxIllegalIdentifierLength;
+
+	static {
+		final List<String> illegalIdentifiers = new ArrayList<>(Arrays.asList(KeyWords.list));
+		illegalIdentifiers.addAll(Arrays.asList(EXTRA_ILLEGAL_IDENTIFIERS));
+
+		Arrays.fill(columns, -1);
+		int columnCount = 0;
+		int stateCount = 1;
+		int min = Integer.MAX_VALUE;
+		int max = 0;
+		for (String identifier : illegalIdentifiers) {
+			for(int i = 0;i < identifier.length();i++) {
+				final char c = identifier.charAt(i);
+				if(columns[c]<0) {
+					columns[c] = columnCount++;
+				}
+			}
+			// an upper bound; shared prefixes need fewer.
+			stateCount += identifier.length();
+			min = Math.min(identifier.length(), min);
+			max = Math.max(identifier.length(), max);
+		}
+		alphabetSize = columnCount;
+		minIllegalIdentifierLength = min;
+		maxIllegalIdentifierLength = max;
+
+		int[] next = new int[stateCount*alphabetSize];
+		boolean[] terminal = new boolean[stateCount];
+		int states = 1;
+		for (String identifier : illegalIdentifiers) {
+			int state = 0;
+			for(int i = 0;i < identifier.length();i++) {
+				final int t = state*alphabetSize + columns[identifier.charAt(i)];
+				if(next[t]==0) {
+					next[t] = states++;
+				}
+				state = next[t];
+			}
+			terminal[state] = true;
+		}
+		transitions = Arrays.copyOf(next, states*alphabetSize);
+		accepting = Arrays.copyOf(terminal, states);
+	}
+
+	private static class Verdict {
+		final String name;
+		final boolean obfuscated;
+
+		Verdict(String name, boolean obfuscated) {
+			this.name = name;
+			this.obfuscated = obfuscated;
+		}
+	}
+
+	/**
+	 * Direct mapped; a newer verdict simply replaces whatever shares its slot.
+	 * Verdicts are immutable, so a racing read sees either the old or the new one, both of which are valid.
+	 */
+	private static final Verdict[] memo = new Verdict[MEMO_SIZE];
+
+	private IdentifierClassifier() {
+	}
+
+	/**
+	 *
+	 * @param name a simple class name, package element, method or field name.
+	 * @return true if the name should be replaced.
+	 */
+	static boolean isObfuscated(final String name) {
+		final int slot = (name.hashCode()*0x9E3779B9 >>> 20) & (MEMO_SIZE-1);
+		final Verdict cached = memo[slot];
+		if(cached!=null && cached.name.equals(name)) {
+			return cached.obfuscated;
+		}
+		final boolean obfuscated = classify(name);
+		memo[slot] = new Verdict(name, obfuscated);
+		return obfuscated;
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @return true if the name consists solely of decimal digits, as an anonymous class' should.
+	 */
+	static boolean isAllNumbers(final String name) {
+		for(int i = 0;i < name.length();i++) {
+			final char c = name.charAt(i);
+			if(c<'0' || c>'9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean classify(final String name) {
+		final int length = name.length();
+
+		// short names just cause naming conflicts that result in the code needing to fully qualify class names
+		// more readable to give them a verbose name.
+		if(length<=1) {
+			return true;
+		}
+
+		// identifiers can't start with a number.
+		final char firstChar = name.charAt(0);
+		if(firstChar>='0' && firstChar<='9') {
+			return true;
+		}
+
+		boolean all00000 = true;
+		for(int i = 0;i < length;i++) {
+			final char c = name.charAt(i);
+			if(c<48 || c>122) {
+				return true;
+			}
+			all00000 &= c=='0' || c=='o' || c=='O';
+		}
+		if(all00000) {
+			return true;
+		}
+
+		// walk the trie along the name; every accepting state passed is an illegal identifier prefixing the name.
+		int state = 0;
+		for(int i = 0;i < length;i++) {
+			state = step(state, name.charAt(i));
+			if(state==0) {
+				return false;
+			}
+			if(accepting[state]) {
+				final int prefixLength = i+1;
+				if(prefixLength==length) {
+					// a sole illegal identifier
+					return true;
+				}
+				// the bounds the concatenation check has always used; the split can't leave the longest identifier as the prefix, nor the shortest as the suffix.
+				if(prefixLength<maxIllegalIdentifierLength && length-prefixLength>minIllegalIdentifierLength && isIllegalIdentifier(name, prefixLength)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 *
+	 * @return the next state, or 0 if the char can't continue any illegal identifier.
+	 */
+	private static int step(int state, char c) {
+		if(c>=columns.length) {
+			return 0;
+		}
+		final int column = columns[c];
+		if(column<0) {
+			return 0;
+		}
+		return transitions[state*alphabetSize + column];
+	}
+
+	/**
+	 *
+	 * @return true if name.substring(from) is an illegal identifier.
+	 */
+	private static boolean isIllegalIdentifier(final String name, int from) {
+		int state = 0;
+		for(int i = from;i < name.length();i++) {
+			state = step(state, name.charAt(i));
+			if(state==0) {
+				return false;
+			}
+		}
+		return accepting[state];
+	}
+}
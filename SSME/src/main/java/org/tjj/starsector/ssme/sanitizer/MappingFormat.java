@@ -0,0 +1,355 @@
+package org.tjj.starsector.ssme.sanitizer;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Locale;
+
+import org.objectweb.asm.Type;
+
+/**
+ * The mapping file formats a Sanitizer can export its mappings to, and import them from.
+ *
+ * Both are read a line at a time, straight into a MappingVisitor, so a mapping file is never held in memory in its entirety.
+ *
+ */
+public enum MappingFormat {
+
+	/**
+	 * The format of ProGuard's mapping.txt; the "original" side is the sanitized name, the "obfuscated" side the game's name. e.g.
+	 * <pre>
+	 * com.fs.starfarer.Class12 -> com.fs.starfarer.a:
+	 *     int privateint3 -> b
+	 *     void Class12Method2(java.lang.String) -> super
+	 * </pre>
+	 * Member types are given in terms of the sanitized names.
+	 */
+	PROGUARD {
+		@Override
+		public MappingVisitor newWriter(final Writer out) {
+			return new MappingVisitor() {
+				@Override
+				public void visitClass(String oldName, String newName) throws IOException {
+					out.write(newName.replace('/', '.'));
+					out.write(" -> ");
+					out.write(oldName.replace('/', '.'));
+					out.write(":\n");
+				}
+
+				@Override
+				public void visitField(String owner, String oldName, String oldDesc, String newName, String newDesc) throws IOException {
+					requireDescriptor(newDesc, newName);
+					out.write("    ");
+					out.write(Type.getType(newDesc).getClassName());
+					out.write(' ');
+					out.write(newName);
+					out.write(" -> ");
+					out.write(oldName);
+					out.write('\n');
+				}
+
+				@Override
+				public void visitMethod(String owner, String oldName, String oldDesc, String newName, String newDesc) throws IOException {
+					requireDescriptor(newDesc, newName);
+					out.write("    ");
+					out.write(Type.getReturnType(newDesc).getClassName());
+					out.write(' ');
+					out.write(newName);
+					out.write('(');
+					final Type[] arguments = Type.getArgumentTypes(newDesc);
+					for (int i = 0; i < arguments.length; i++) {
+						if(i>0) {
+							out.write(',');
+						}
+						out.write(arguments[i].getClassName());
+					}
+					out.write(") -> ");
+					out.write(oldName);
+					out.write('\n');
+				}
+			};
+		}
+
+		@Override
+		public void read(Reader in, MappingVisitor visitor) throws IOException {
+			final BufferedReader reader = in instanceof BufferedReader ? (BufferedReader)in : new BufferedReader(in);
+			final StringBuilder desc = new StringBuilder();
+
+			String owner = null;
+			String line;
+			int lineNumber = 0;
+			while((line = reader.readLine())!=null) {
+				lineNumber++;
+				final int start = skipWhitespace(line, 0);
+				if(start==line.length() || line.charAt(start)=='#') {
+					continue;
+				}
+				final int arrow = line.indexOf(" -> ", start);
+				if(arrow<0) {
+					throw malformed(this, lineNumber, line);
+				}
+
+				if(start==0) {
+					// new.name -> old.name:
+					if(!line.endsWith(":")) {
+						throw malformed(this, lineNumber, line);
+					}
+					owner = line.substring(arrow+4, line.length()-1).replace('.', '/');
+					visitor.visitClass(owner, line.substring(0, arrow).replace('.', '/'));
+					continue;
+				}
+
+				if(owner==null) {
+					throw malformed(this, lineNumber, line);
+				}
+				final String oldName = line.substring(arrow+4).trim();
+
+				// inlining information that ProGuard prefixes (and sometimes suffixes) method lines with; e.g. "12:14:void run():12:14 -> a"
+				int typeStart = start;
+				while(typeStart < arrow && Character.isDigit(line.charAt(typeStart))) {
+					final int colon = line.indexOf(':', typeStart);
+					if(colon<0 || colon>arrow) {
+						break;
+					}
+					typeStart = colon+1;
+				}
+				final int space = line.indexOf(' ', typeStart);
+				if(space<0 || space>arrow) {
+					throw malformed(this, lineNumber, line);
+				}
+				final int open = line.indexOf('(', space);
+
+				desc.setLength(0);
+				if(open<0 || open>arrow) {
+					appendDescriptor(desc, line, typeStart, space);
+					visitor.visitField(owner, oldName, null, line.substring(space+1, arrow), desc.toString());
+				}
+				else {
+					final int close = line.indexOf(')', open);
+					if(close<0 || close>arrow) {
+						throw malformed(this, lineNumber, line);
+					}
+					desc.append('(');
+					int argument = open+1;
+					while(argument < close) {
+						int end = line.indexOf(',', argument);
+						if(end<0 || end>close) {
+							end = close;
+						}
+						appendDescriptor(desc, line, argument, end);
+						argument = end+1;
+					}
+					desc.append(')');
+					appendDescriptor(desc, line, typeStart, space);
+					visitor.visitMethod(owner, oldName, null, line.substring(space+1, open), desc.toString());
+				}
+			}
+		}
+	},
+
+	/**
+	 * Version 1 of the tab separated Tiny format (as used by Fabric), with the "official" (obfuscated) & "named" (sanitized) namespaces. e.g.
+	 * <pre>
+	 * v1	official	named
+	 * CLASS	com/fs/starfarer/a	com/fs/starfarer/Class12
+	 * FIELD	com/fs/starfarer/a	I	b	privateint3
+	 * METHOD	com/fs/starfarer/a	(Ljava/lang/String;)V	super	Class12Method2
+	 * </pre>
+	 * Member descriptors are given in terms of the obfuscated names.
+	 */
+	TINY {
+		private static final String HEADER = "v1\tofficial\tnamed\n";
+
+		@Override
+		public MappingVisitor newWriter(final Writer out) throws IOException {
+			out.write(HEADER);
+			return new MappingVisitor() {
+				@Override
+				public void visitClass(String oldName, String newName) throws IOException {
+					out.write("CLASS\t");
+					out.write(oldName);
+					out.write('\t');
+					out.write(newName);
+					out.write('\n');
+				}
+
+				@Override
+				public void visitField(String owner, String oldName, String oldDesc, String newName, String newDesc) throws IOException {
+					writeMember("FIELD\t", owner, oldName, oldDesc, newName);
+				}
+
+				@Override
+				public void visitMethod(String owner, String oldName, String oldDesc, String newName, String newDesc) throws IOException {
+					writeMember("METHOD\t", owner, oldName, oldDesc, newName);
+				}
+
+				private void writeMember(String kind, String owner, String oldName, String oldDesc, String newName) throws IOException {
+					requireDescriptor(oldDesc, oldName);
+					out.write(kind);
+					out.write(owner);
+					out.write('\t');
+					out.write(oldDesc);
+					out.write('\t');
+					out.write(oldName);
+					out.write('\t');
+					out.write(newName);
+					out.write('\n');
+				}
+			};
+		}
+
+		@Override
+		public void read(Reader in, MappingVisitor visitor) throws IOException {
+			final BufferedReader reader = in instanceof BufferedReader ? (BufferedReader)in : new BufferedReader(in);
+
+			String line = reader.readLine();
+			if(line==null || !line.startsWith("v1\t")) {
+				throw new IOException("Not a version 1 Tiny mapping file");
+			}
+			// the descriptors are always in terms of the 1st namespace, which must be the obfuscated one.
+			// The sanitized names are taken from the "named" namespace if there is one, otherwise from the last.
+			final String[] namespaces = line.substring(3).split("\t");
+			int named = namespaces.length-1;
+			for (int i = 1; i < namespaces.length; i++) {
+				if(namespaces[i].equals("named")) {
+					named = i;
+				}
+			}
+			if(named<1) {
+				throw new IOException("A Tiny mapping file needs at least 2 namespaces");
+			}
+
+			final String[] columns = new String[namespaces.length+3];
+			int lineNumber = 1;
+			while((line = reader.readLine())!=null) {
+				lineNumber++;
+				if(line.isEmpty() || line.charAt(0)=='#') {
+					continue;
+				}
+				final int count = split(line, columns);
+				if(count<2) {
+					throw malformed(this, lineNumber, line);
+				}
+				switch(columns[0]) {
+				case "CLASS":
+					if(count<=1+named) {
+						throw malformed(this, lineNumber, line);
+					}
+					visitor.visitClass(columns[1], columns[1+named]);
+					break;
+				case "FIELD":
+					if(count<=3+named) {
+						throw malformed(this, lineNumber, line);
+					}
+					visitor.visitField(columns[1], columns[3], columns[2], columns[3+named], null);
+					break;
+				case "METHOD":
+					if(count<=3+named) {
+						throw malformed(this, lineNumber, line);
+					}
+					visitor.visitMethod(columns[1], columns[3], columns[2], columns[3+named], null);
+					break;
+				default:
+					// other entry kinds (e.g. the comments of some tools) aren't mappings.
+				}
+			}
+		}
+	};
+
+	/**
+	 *
+	 * @param out the visited mappings are written to this; it's neither flushed nor closed.
+	 * @return a visitor that writes the mappings in this format.
+	 * @throws IOException
+	 */
+	public abstract MappingVisitor newWriter(Writer out) throws IOException;
+
+	/**
+	 * Reads a mapping file, passing each entry to the visitor as it's read.
+	 *
+	 * @param in
+	 * @param visitor
+	 * @throws IOException if the mappings can't be read, or are malformed.
+	 */
+	public abstract void read(Reader in, MappingVisitor visitor) throws IOException;
+
+	/**
+	 *
+	 * @param file
+	 * @return TINY for ".tiny" files, otherwise PROGUARD.
+	 */
+	public static MappingFormat forFile(File file) {
+		return file.getName().toLowerCase(Locale.ROOT).endsWith(".tiny") ? TINY : PROGUARD;
+	}
+
+	private static void requireDescriptor(String desc, String name) {
+		if(desc==null) {
+			throw new IllegalArgumentException("No descriptor in the form needed to write " + name);
+		}
+	}
+
+	private static IOException malformed(MappingFormat format, int lineNumber, String line) {
+		return new IOException("Malformed " + format + " mapping at line " + lineNumber + ": " + line);
+	}
+
+	private static int skipWhitespace(String line, int from) {
+		while(from < line.length() && Character.isWhitespace(line.charAt(from))) {
+			from++;
+		}
+		return from;
+	}
+
+	/**
+	 * Splits a tab separated line into the supplied array; any columns beyond its length are ignored.
+	 * @return the number of columns.
+	 */
+	private static int split(String line, String[] columns) {
+		int count = 0;
+		int from = 0;
+		while(count < columns.length) {
+			final int tab = line.indexOf('\t', from);
+			columns[count++] = line.substring(from, tab<0 ? line.length() : tab);
+			if(tab<0) {
+				break;
+			}
+			from = tab+1;
+		}
+		return count;
+	}
+
+	/**
+	 * Appends the descriptor of a Java type name, such as "int" or "java.lang.String[]"
+	 */
+	private static void appendDescriptor(StringBuilder desc, String line, int start, int end) {
+		while(end-start>2 && line.charAt(end-2)=='[' && line.charAt(end-1)==']') {
+			desc.append('[');
+			end -= 2;
+		}
+		final int length = end-start;
+		final char primitive;
+		if(line.startsWith("int", start) && length==3) primitive = 'I';
+		else if(line.startsWith("void", start) && length==4) primitive = 'V';
+		else if(line.startsWith("boolean", start) && length==7) primitive = 'Z';
+		else if(line.startsWith("byte", start) && length==4) primitive = 'B';
+		else if(line.startsWith("char", start) && length==4) primitive = 'C';
+		else if(line.startsWith("short", start) && length==5) primitive = 'S';
+		else if(line.startsWith("long", start) && length==4) primitive = 'J';
+		else if(line.startsWith("float", start) && length==5) primitive = 'F';
+		else if(line.startsWith("double", start) && length==6) primitive = 'D';
+		else primitive = 0;
+
+		if(primitive!=0) {
+			desc.append(primitive);
+		}
+		else {
+			desc.append('L');
+			for (int i = start; i < end; i++) {
+				final char c = line.charAt(i);
+				desc.append(c=='.' ? '/' : c);
+			}
+			desc.append(';');
+		}
+	}
+}
@@ -0,0 +1,154 @@
+package org.tjj.starsector.ssme.sanitizer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A complete set of imported mappings, keyed by obfuscated names, for a Sanitizer to use in place of inferring its own.
+ *
+ * Anything the mappings don't mention keeps its obfuscated name, as is the convention of the mapping formats;
+ * except for methods that override a renamed method, which take the overridden method's name.
+ *
+ */
+public class MappingSet implements MappingVisitor {
+
+	static final class ClassEntry {
+		final String oldName;
+		String newName;
+
+		/**
+		 * {oldName, oldDesc, newName, newDesc}, as visited; either descriptor may be null until complete() has been called.
+		 */
+		private final List<String[]> methodEntries = new ArrayList<>();
+		private final Map<String, String> fields = new HashMap<>();
+		/**
+		 * keyed by obfuscated name + obfuscated descriptor, e.g. "a(Lcom/fs/b;)V"
+		 */
+		private final Map<String, String> methods = new HashMap<>();
+
+		ClassEntry(String oldName) {
+			this.oldName = oldName;
+			this.newName = oldName;
+		}
+
+		/**
+		 *
+		 * @param oldName
+		 * @return the new name of the field, or null if it's not mapped.
+		 */
+		String getField(String oldName) {
+			return fields.get(oldName);
+		}
+
+		/**
+		 *
+		 * @param oldName
+		 * @param oldDesc
+		 * @return the new name of the method, or null if it's not mapped.
+		 */
+		String getMethod(String oldName, String oldDesc) {
+			return methods.get(oldName.concat(oldDesc));
+		}
+
+		/**
+		 *
+		 * @return the mapped methods, as {oldName, oldDesc, newName}.
+		 */
+		List<String[]> getMethods() {
+			return methodEntries;
+		}
+	}
+
+	private final Map<String, ClassEntry> classes = new HashMap<>();
+	private boolean complete;
+
+	private ClassEntry entry(String oldName) {
+		ClassEntry entry = classes.get(oldName);
+		if(entry==null) {
+			entry = new ClassEntry(oldName);
+			classes.put(oldName, entry);
+		}
+		return entry;
+	}
+
+	@Override
+	public void visitClass(String oldName, String newName) {
+		entry(oldName).newName = newName;
+	}
+
+	@Override
+	public void visitField(String owner, String oldName, String oldDesc, String newName, String newDesc) {
+		entry(owner).fields.put(oldName, newName);
+	}
+
+	@Override
+	public void visitMethod(String owner, String oldName, String oldDesc, String newName, String newDesc) {
+		entry(owner).methodEntries.add(new String[] {oldName, oldDesc, newName, newDesc});
+	}
+
+	/**
+	 * Called once every entry has been visited; fills in the obfuscated descriptors that weren't supplied.
+	 */
+	void complete() {
+		if(complete) {
+			return;
+		}
+		Map<String, String> newToOld = null;
+		for (ClassEntry entry : classes.values()) {
+			for (String[] method : entry.methodEntries) {
+				if(method[1]==null) {
+					if(newToOld==null) {
+						newToOld = new HashMap<>(classes.size()*2);
+						for (ClassEntry c : classes.values()) {
+							newToOld.put(c.newName, c.oldName);
+						}
+					}
+					method[1] = remapDescriptor(method[3], newToOld);
+				}
+				entry.methods.put(method[0].concat(method[1]), method[2]);
+			}
+		}
+		complete = true;
+	}
+
+	/**
+	 *
+	 * @param oldName obfuscated name of a class.
+	 * @return its mappings, or null if the class isn't mentioned.
+	 */
+	ClassEntry get(String oldName) {
+		return classes.get(oldName);
+	}
+
+	int size() {
+		return classes.size();
+	}
+
+	/**
+	 *
+	 * @param desc a field or method descriptor.
+	 * @param names
+	 * @return the descriptor with every class name present in names replaced.
+	 */
+	static String remapDescriptor(String desc, Map<String, String> names) {
+		int start = desc.indexOf('L');
+		if(start<0) {
+			return desc;
+		}
+		final StringBuilder sb = new StringBuilder(desc.length());
+		int from = 0;
+		while(start>=0) {
+			final int end = desc.indexOf(';', start);
+			sb.append(desc, from, start+1);
+			final String name = desc.substring(start+1, end);
+			final String mapped = names.get(name);
+			sb.append(mapped!=null ? mapped : name);
+			from = end;
+			start = desc.indexOf('L', end);
+		}
+		sb.append(desc, from, desc.length());
+		return sb.toString();
+	}
+}
@@ -0,0 +1,45 @@
+package org.tjj.starsector.ssme.sanitizer;
+
+import java.io.IOException;
+
+/**
+ * Receives a set of mappings one entry at a time, as they're read from a mapping file or exported by a Sanitizer.
+ *
+ * All names are internal names (e.g. "com/fs/a"). "old" is the obfuscated side, "new" the sanitized side.
+ * A descriptor may be null if the source doesn't know it in that form (e.g. a ProGuard file only gives the sanitized form);
+ * the Sanitizer always supplies both.
+ * The members of a class are visited straight after the class itself, before the next class.
+ *
+ */
+public interface MappingVisitor {
+
+	/**
+	 *
+	 * @param oldName
+	 * @param newName
+	 * @throws IOException
+	 */
+	public void visitClass(String oldName, String newName) throws IOException;
+
+	/**
+	 *
+	 * @param owner obfuscated name of the declaring class.
+	 * @param oldName
+	 * @param oldDesc field descriptor in terms of the obfuscated class names, or null.
+	 * @param newName
+	 * @param newDesc field descriptor in terms of the sanitized class names, or null.
+	 * @throws IOException
+	 */
+	public void visitField(String owner, String oldName, String oldDesc, String newName, String newDesc) throws IOException;
+
+	/**
+	 *
+	 * @param owner obfuscated name of the declaring class.
+	 * @param oldName
+	 * @param oldDesc method descriptor in terms of the obfuscated class names, or null.
+	 * @param newName
+	 * @param newDesc method descriptor in terms of the sanitized class names, or null.
+	 * @throws IOException
+	 */
+	public void visitMethod(String owner, String oldName, String oldDesc, String newName, String newDesc) throws IOException;
+}
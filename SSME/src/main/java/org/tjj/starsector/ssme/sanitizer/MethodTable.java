@@ -0,0 +1,260 @@
+package org.tjj.starsector.ssme.sanitizer;
+
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.objectweb.asm.Opcodes;
+import org.tjj.starsector.ssme.sanitizer.ClassMapping.Method;
+
+import com.google.common.hash.Hasher;
+
+/**
+ * The method names of a single class.
+ *
+ * Only the methods the class declares (or renames, in the case of bridge methods) are held here;
+ * inherited methods are looked up in the tables of the class' supertypes, in the order given by the HierarchyIndex.
+ * This way each inherited method is held once, by the class that declares it, rather than copied into every subclass.
+ *
+ * The table is open-addressed on (name, desc), so that a lookup doesn't need to allocate a key.
+ *
+ */
+public class MethodTable extends AbstractMap<Method, String> implements Opcodes {
+
+	private final ClassMapping owner;
+	private final HierarchyIndex hierarchy;
+
+	// parallel arrays; a slot is empty if its name is null.
+	private String[] names;
+	private String[] descs;
+	private String[] newNames;
+	/**
+	 * false for declared methods that are not inherited by subclasses (private & static methods).
+	 */
+	private boolean[] inheritable;
+
+	private int size;
+
+	MethodTable(ClassMapping owner, HierarchyIndex hierarchy, int expectedSize) {
+		this.owner = owner;
+		this.hierarchy = hierarchy;
+
+		// kept at most half full.
+		int capacity = 4;
+		while(capacity < expectedSize*2) {
+			capacity <<= 1;
+		}
+		allocate(capacity);
+	}
+
+	private void allocate(int capacity) {
+		names = new String[capacity];
+		descs = new String[capacity];
+		newNames = new String[capacity];
+		inheritable = new boolean[capacity];
+	}
+
+	private static int hash(String name, String desc) {
+		final int h = name.hashCode()*31 + desc.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 *
+	 * @return the slot holding the method, or if it isn't present, the complement of the slot it should be inserted into.
+	 */
+	private int indexOf(String name, String desc) {
+		final int mask = names.length-1;
+		int i = hash(name, desc) & mask;
+		String n;
+		while((n = names[i])!=null) {
+			if(n.equals(name) && descs[i].equals(desc)) {
+				return i;
+			}
+			i = (i+1) & mask;
+		}
+		return ~i;
+	}
+
+	private void put(String name, String desc, String newName, boolean isInheritable) {
+		int i = indexOf(name, desc);
+		if(i<0) {
+			if((size+1)*2 > names.length) {
+				grow();
+				i = indexOf(name, desc);
+			}
+			i = ~i;
+			names[i] = name;
+			descs[i] = desc;
+			size++;
+		}
+		newNames[i] = newName;
+		inheritable[i] = isInheritable;
+	}
+
+	private void grow() {
+		final String[] oldNames = names;
+		final String[] oldDescs = descs;
+		final String[] oldNewNames = newNames;
+		final boolean[] oldInheritable = inheritable;
+
+		allocate(oldNames.length << 1);
+		for (int i = 0; i < oldNames.length; i++) {
+			if(oldNames[i]!=null) {
+				final int slot = ~indexOf(oldNames[i], oldDescs[i]);
+				names[slot] = oldNames[i];
+				descs[slot] = oldDescs[i];
+				newNames[slot] = oldNewNames[i];
+				inheritable[slot] = oldInheritable[i];
+			}
+		}
+	}
+
+	/**
+	 * Records the new name of a method declared by this class.
+	 * @param method
+	 * @param newName
+	 */
+	void declare(Method method, String newName) {
+		final int access = method.access;
+		put(method.oldName, method.desc, newName, !(ClassMapping.checkVisibility(ACC_PRIVATE, access) || ClassMapping.checkAccess(ACC_STATIC, access)));
+	}
+
+	/**
+	 * Overrides the name of a method; it might not be declared by this class.
+	 * @param method
+	 * @param newName
+	 */
+	void rename(Method method, String newName) {
+		final int i = indexOf(method.oldName, method.desc);
+		put(method.oldName, method.desc, newName, i<0 || inheritable[i]);
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @param desc
+	 * @return the name that subclasses inherit from this class' declaration of the method, or null if the method is not declared here, or is not inherited.
+	 */
+	String getInheritable(String name, String desc) {
+		final int i = indexOf(name, desc);
+		if(i<0 || !inheritable[i]) {
+			return null;
+		}
+		return newNames[i];
+	}
+
+	/**
+	 *
+	 * @param name obfuscated name of the method.
+	 * @param desc obfuscated descriptor of the method.
+	 * @return the new name of the method, declared or inherited, or null if the class has no such method.
+	 */
+	public String get(String name, String desc) {
+		final int i = indexOf(name, desc);
+		if(i>=0) {
+			return newNames[i];
+		}
+
+		for (ClassMapping supertype : hierarchy.getInheritanceOrder(owner)) {
+			final String newName = supertype.getMethodTable().getInheritable(name, desc);
+			if(newName!=null) {
+				return newName;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String get(Object key) {
+		if(key instanceof Method) {
+			final Method method = (Method)key;
+			return get(method.oldName, method.desc);
+		}
+		return null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return get(key)!=null;
+	}
+
+	/**
+	 * Flattens the inherited & declared methods into a new Map.
+	 * Only intended for inspecting the mappings; look methods up with get(...).
+	 */
+	@Override
+	public Set<Entry<Method, String>> entrySet() {
+		final Map<Method, String> flattened = new HashMap<>();
+
+		final ClassMapping[] order = hierarchy.getInheritanceOrder(owner);
+		// lowest priority first, so the overriding names replace them.
+		for (int i = order.length-1; i >= 0; i--) {
+			order[i].getMethodTable().copyTo(flattened, true);
+		}
+		copyTo(flattened, false);
+
+		return flattened.entrySet();
+	}
+
+	/**
+	 * Adds the methods declared (or renamed) by this class to the hasher, in an order that doesn't depend upon the layout of the table.
+	 * @param hasher
+	 */
+	void putDeclared(Hasher hasher) {
+		for (Integer i : sortedSlots()) {
+			hasher.putUnencodedChars(names[i]).putChar('\0');
+			hasher.putUnencodedChars(descs[i]).putChar('\0');
+			hasher.putUnencodedChars(newNames[i]).putChar('\0');
+			hasher.putBoolean(inheritable[i]);
+		}
+	}
+
+	/**
+	 * Passes the methods declared (or renamed) by this class whose names have changed to the visitor, in name order.
+	 * @param visitor
+	 * @param remapper
+	 * @throws IOException
+	 */
+	void visitRenamed(MappingVisitor visitor, DescriptorRemapper remapper) throws IOException {
+		final String ownerName = owner.getName();
+		for (Integer i : sortedSlots()) {
+			if(!names[i].equals(newNames[i])) {
+				visitor.visitMethod(ownerName, names[i], descs[i], newNames[i], remapper.mapMethodType(descs[i]));
+			}
+		}
+	}
+
+	/**
+	 * @return the occupied slots, ordered by name & desc.
+	 */
+	private Integer[] sortedSlots() {
+		final Integer[] slots = new Integer[size];
+		int count = 0;
+		for (int i = 0; i < names.length; i++) {
+			if(names[i]!=null) {
+				slots[count++] = i;
+			}
+		}
+		Arrays.sort(slots, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				final int byName = names[a].compareTo(names[b]);
+				return byName!=0 ? byName : descs[a].compareTo(descs[b]);
+			}
+		});
+		return slots;
+	}
+
+	private void copyTo(Map<Method, String> map, boolean inheritableOnly) {
+		for (int i = 0; i < names.length; i++) {
+			if(names[i]!=null && (inheritable[i] || !inheritableOnly)) {
+				map.put(new Method(names[i], descs[i], ClassMapping.ACC_DEFAULT), newNames[i]);
+			}
+		}
+	}
+}
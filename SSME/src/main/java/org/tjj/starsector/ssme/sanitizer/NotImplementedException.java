@@ -1,31 +1,31 @@
-package org.tjj.starsector.ssme.sanitizer;
-
-@SuppressWarnings("serial")
-public class NotImplementedException extends RuntimeException {
-
-	public NotImplementedException() {
-		// TODO Auto-generated constructor stub
-	}
-
-	public NotImplementedException(String message) {
-		super(message);
-		// TODO Auto-generated constructor stub
-	}
-
-	public NotImplementedException(Throwable cause) {
-		super(cause);
-		// TODO Auto-generated constructor stub
-	}
-
-	public NotImplementedException(String message, Throwable cause) {
-		super(message, cause);
-		// TODO Auto-generated constructor stub
-	}
-
-	public NotImplementedException(String message, Throwable cause, boolean enableSuppression,
-			boolean writableStackTrace) {
-		super(message, cause, enableSuppression, writableStackTrace);
-		// TODO Auto-generated constructor stub
-	}
-
-}
+package org.tjj.starsector.ssme.sanitizer;
+
+@SuppressWarnings("serial")
+public class NotImplementedException extends RuntimeException {
+
+	public NotImplementedException() {
+		// TODO Auto-generated constructor stub
+	}
+
+	public NotImplementedException(String message) {
+		super(message);
+		// TODO Auto-generated constructor stub
+	}
+
+	public NotImplementedException(Throwable cause) {
+		super(cause);
+		// TODO Auto-generated constructor stub
+	}
+
+	public NotImplementedException(String message, Throwable cause) {
+		super(message, cause);
+		// TODO Auto-generated constructor stub
+	}
+
+	public NotImplementedException(String message, Throwable cause, boolean enableSuppression,
+			boolean writableStackTrace) {
+		super(message, cause, enableSuppression, writableStackTrace);
+		// TODO Auto-generated constructor stub
+	}
+
+}
@@ -0,0 +1,190 @@
+package org.tjj.starsector.ssme.sanitizer;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.Attributes;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+/**
+ * Writes every sanitized class into a single jar.
+ *
+ * Classes are handed to a dedicated writer thread through a bounded queue, so the archive is written while Sanitizer.apply() is still rewriting,
+ * and apply() is only held up if the writer falls more than QUEUE_CAPACITY classes behind.
+ *
+ * The jar is written to a temporary file, and only moved into place once its central directory has been written;
+ * if the write is aborted the temporary file is deleted, and any previous jar is left in place.
+ *
+ */
+public class SanitizedArchiveWriter implements ClassSink {
+
+	/**
+	 * default jar into which the sanitized classes are written.
+	 */
+	public static final String DEFAULT_FILENAME = "deobfuscated.jar";
+
+	private static final int QUEUE_CAPACITY = 256;
+
+	/**
+	 * marks the end of the queue.
+	 */
+	private static final Entry END = new Entry(null, null);
+
+	private static class Entry {
+		final String className;
+		final byte[] b;
+
+		Entry(String className, byte[] b) {
+			this.className = className;
+			this.b = b;
+		}
+	}
+
+	private final File file;
+	private final File tempFile;
+	private final boolean stored;
+
+	private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	private final FutureTask<Integer> archiveWrite;
+	private final Thread writerThread;
+	private volatile boolean aborted;
+
+	/**
+	 *
+	 * @param file the jar to write.
+	 * @param stored if true, the classes are stored uncompressed; the jar is larger, but quicker to write & read.
+	 */
+	public SanitizedArchiveWriter(File file, boolean stored) {
+		this.file = file;
+		this.tempFile = new File(file.getPath() + ".tmp");
+		this.stored = stored;
+
+		archiveWrite = new FutureTask<>(new ArchiveWrite());
+
+		// daemon, so that an abandoned Sanitizer run doesn't leave the writer waiting forever for its END.
+		writerThread = new Thread(archiveWrite, "SanitizedArchiveWriter");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	private class ArchiveWrite implements Callable<Integer> {
+		@Override
+		public Integer call() throws IOException, InterruptedException {
+			final long start = System.nanoTime();
+
+			final Manifest manifest = new Manifest();
+			manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+
+			int count = 0;
+			boolean complete = false;
+			try (JarOutputStream jos = new JarOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 1<<16), manifest)) {
+				final CRC32 crc = new CRC32();
+
+				Entry entry;
+				while((entry = queue.take())!=END) {
+					final ZipEntry zipEntry = new ZipEntry(entry.className + ".class");
+					if(stored) {
+						// stored entries must have their size & crc known before they're written.
+						crc.reset();
+						crc.update(entry.b);
+						zipEntry.setMethod(ZipEntry.STORED);
+						zipEntry.setSize(entry.b.length);
+						zipEntry.setCompressedSize(entry.b.length);
+						zipEntry.setCrc(crc.getValue());
+					}
+					jos.putNextEntry(zipEntry);
+					jos.write(entry.b);
+					jos.closeEntry();
+					count++;
+				}
+				complete = !aborted;
+			}
+			finally {
+				if(!complete) {
+					tempFile.delete();
+				}
+			}
+			if(!complete) {
+				throw new CancellationException();
+			}
+
+			try {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch(AtomicMoveNotSupportedException e) {
+				Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+			}
+
+			System.out.println("Archive write took: " + (System.nanoTime()-start)/1000000 + "ms");
+			return count;
+		}
+	}
+
+	/**
+	 * Queues the entry, blocking while the queue is full.
+	 *
+	 * @param entry
+	 * @throws InterruptedException
+	 * @throws ExecutionException if the writer has failed.
+	 * @throws IOException if the writer has already finished.
+	 */
+	private void enqueue(Entry entry) throws InterruptedException, ExecutionException, IOException {
+		while(!queue.offer(entry, 100, TimeUnit.MILLISECONDS)) {
+			if(archiveWrite.isDone()) {
+				// rethrows the writer's failure
+				archiveWrite.get();
+				throw new IOException("Cannot write to " + file + ", already complete");
+			}
+		}
+	}
+
+	@Override
+	public void addClass(String className, byte[] b) throws IOException, InterruptedException, ExecutionException {
+		if(archiveWrite.isDone()) {
+			archiveWrite.get();
+			throw new IOException("Cannot write: " + className + ", " + file + " is already complete");
+		}
+		enqueue(new Entry(className, b));
+	}
+
+	@Override
+	public void waitUntilComplete() throws IOException, InterruptedException, ExecutionException {
+		long waitStarted = System.nanoTime();
+
+		enqueue(END);
+		final int count = archiveWrite.get();
+
+		System.out.println("Writing " + count + " classes added " + (System.nanoTime()-waitStarted)/1000000 + "ms");
+	}
+
+	/**
+	 * Interrupts the writer thread, and waits for it to delete the temporary file.
+	 */
+	@Override
+	public void abort() {
+		aborted = true;
+		archiveWrite.cancel(true);
+		Uninterruptibles.joinUninterruptibly(writerThread);
+	}
+
+	@Override
+	public File getOutput() {
+		return file;
+	}
+}
@@ -1,81 +1,273 @@
-package org.tjj.starsector.ssme.sanitizer;
-
-import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.Callable;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
-
-import org.tjj.starsector.ssme.Utils;
-
-public class SanitizedWriter {
-
-	private ExecutorService executor;
-	private final File root;
-	
-	private final Future<Boolean> initialClean;
-	private final List<Future<Boolean>> classWrites = new ArrayList<>();
-	
-	
-	public SanitizedWriter(String folderName, ExecutorService executor) throws IOException {
-		this.root = new File(folderName);
-		
-		this.executor = executor; 
-
-		initialClean = executor.submit(new Callable<Boolean>() {
-			public Boolean call() throws IOException {
-				long start = System.nanoTime();
-				if (root.exists()) {
-					Utils.removeRecursive(root.toPath());
-					if (root.exists()) {
-						throw new IOException("Failed deleting " + root);
-					}
-				}
-				System.out.println("initialClean duration: " + (System.nanoTime()-start)/1000000 + "ms");
-				return Boolean.TRUE;
-				
-			}
-		});
-	}
-				
-				
-	public void addClass(final String className, final byte[] b) {
-		
-		Future<Boolean> result = executor.submit(new Callable<Boolean>() {
-		
-			public Boolean call() throws IOException, InterruptedException, ExecutionException {
-				
-				//make sure the initial clean job has completed.
-				initialClean.get();
-				
-				File f = new File(root, className + ".class");
-				if (f.exists()) {
-					throw new IOException("Cannot write: " + f + ", already exists!");
-				}
-				f.getParentFile().mkdirs();
-
-				try (FileOutputStream fos = new FileOutputStream(f)) {
-					fos.write(b);
-				}
-				return Boolean.TRUE;
-				
-			}
-		});
-		classWrites.add(result);
-		
-	}
-	
-	public void waitUntilComplete() throws IOException, InterruptedException, ExecutionException {
-		long waitStarted = System.nanoTime();
-		for (Future<Boolean> future : classWrites) {
-			future.get();
-		}
-		
-		System.out.println("Writing classes added " + (System.nanoTime()-waitStarted)/1000000 + "ms");
-		
-	}
-}
+package org.tjj.starsector.ssme.sanitizer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.tjj.starsector.ssme.Utils;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+
+/**
+ * Writes each sanitized class into its own file, beneath a folder.
+ *
+ * In sync mode, a manifest of the content hash of every file written is kept alongside the folder.
+ * Only the classes whose sanitized bytes differ from the manifest are written, and only the files that are no longer produced are deleted,
+ * so rerunning against unchanged jars doesn't touch the folder at all.
+ * If the manifest is missing or unreadable, the folder is wiped & rewritten as in the normal mode.
+ * The manifest is deleted as soon as it's been read, & only written afresh once every class has been written;
+ * so should a run die part way through, the next run finds no manifest, and rewrites the folder it left behind.
+ *
+ */
+public class SanitizedWriter implements ClassSink {
+
+	/**
+	 * default folder into which the sanitized classes are written.
+	 */
+	public static final String DEFAULT_FOLDER = "deobfuscated";
+
+	private static final int MANIFEST_MAGIC = 0x53534D46; // "SSMF"
+	private static final int MANIFEST_VERSION = 1;
+
+	private ExecutorService executor;
+	private final File root;
+	private final boolean sync;
+	private final File manifestFile;
+
+	private final Future<Boolean> initialClean;
+	private final List<Future<Boolean>> classWrites = new ArrayList<>();
+
+	/**
+	 * content hashes of the files written by the previous run, keyed by class name; only populated in sync mode.
+	 * Read only once initialClean has completed.
+	 */
+	private final Map<String, HashCode> previousManifest = new HashMap<>();
+	private final ConcurrentMap<String, HashCode> manifest = new ConcurrentHashMap<>();
+	private final AtomicInteger writeCount = new AtomicInteger();
+
+	public SanitizedWriter(String folderName, ExecutorService executor) throws IOException {
+		this(folderName, false, executor);
+	}
+
+	/**
+	 *
+	 * @param folderName
+	 * @param sync if true, only the files that have changed since the previous run are written or deleted.
+	 * @param executor
+	 * @throws IOException
+	 */
+	public SanitizedWriter(String folderName, boolean sync, ExecutorService executor) throws IOException {
+		this.root = new File(folderName);
+		this.sync = sync;
+		this.manifestFile = getManifestFile(root);
+
+		this.executor = executor;
+
+		initialClean = executor.submit(new Callable<Boolean>() {
+			public Boolean call() throws IOException {
+				long start = System.nanoTime();
+				final boolean manifestRead = SanitizedWriter.this.sync && readManifest();
+				// either it's been read, or it doesn't describe the folder; and it won't, once the 1st class is written.
+				Files.deleteIfExists(manifestFile.toPath());
+				if(manifestRead) {
+					System.out.println("initialClean skipped, " + previousManifest.size() + " classes in manifest");
+					return Boolean.TRUE;
+				}
+				if (root.exists()) {
+					Utils.removeRecursive(root.toPath());
+					if (root.exists()) {
+						throw new IOException("Failed deleting " + root);
+					}
+				}
+				System.out.println("initialClean duration: " + (System.nanoTime()-start)/1000000 + "ms");
+				return Boolean.TRUE;
+
+			}
+		});
+	}
+
+	/**
+	 * 
+	 * @param root
+	 * @return the manifest kept alongside the folder in sync mode.
+	 */
+	static File getManifestFile(File root) {
+		return new File(root.getPath() + ".manifest");
+	}
+
+	/**
+	 *
+	 * @return true if the manifest of the previous run was read, and the folder it describes is present.
+	 */
+	private boolean readManifest() {
+		if(!manifestFile.isFile() || !root.isDirectory()) {
+			return false;
+		}
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(manifestFile), 1<<16))) {
+			if(in.readInt()!=MANIFEST_MAGIC || in.readInt()!=MANIFEST_VERSION) {
+				return false;
+			}
+			final int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				final String className = in.readUTF();
+				final byte[] hash = new byte[in.readUnsignedByte()];
+				in.readFully(hash);
+				previousManifest.put(className, HashCode.fromBytes(hash));
+			}
+			return true;
+		}
+		catch(IOException | IllegalArgumentException e) {
+			System.out.println("Sanitized class manifest could not be read: " + e);
+			previousManifest.clear();
+			return false;
+		}
+	}
+
+	private void writeManifest() throws IOException {
+		final File tempFile = new File(manifestFile.getPath() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 1<<16))) {
+			out.writeInt(MANIFEST_MAGIC);
+			out.writeInt(MANIFEST_VERSION);
+			out.writeInt(manifest.size());
+			for (Entry<String, HashCode> entry : manifest.entrySet()) {
+				final byte[] hash = entry.getValue().asBytes();
+				out.writeUTF(entry.getKey());
+				out.writeByte(hash.length);
+				out.write(hash);
+			}
+		}
+
+		try {
+			Files.move(tempFile.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch(AtomicMoveNotSupportedException e) {
+			Files.move(tempFile.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	@Override
+	public void addClass(final String className, final byte[] b) {
+
+		Future<Boolean> result = executor.submit(new Callable<Boolean>() {
+
+			public Boolean call() throws IOException, InterruptedException, ExecutionException {
+
+				//make sure the initial clean job has completed.
+				initialClean.get();
+
+				File f = new File(root, className + ".class");
+
+				if(sync) {
+					final HashCode hash = Hashing.sha1().hashBytes(b);
+					if(manifest.put(className, hash)!=null) {
+						throw new IOException("Cannot write: " + f + ", already written!");
+					}
+					// the length check catches files that have been deleted (or damaged) since the previous run.
+					if(hash.equals(previousManifest.get(className)) && f.length()==b.length) {
+						return Boolean.TRUE;
+					}
+				} else if (f.exists()) {
+					throw new IOException("Cannot write: " + f + ", already exists!");
+				}
+				f.getParentFile().mkdirs();
+
+				try (FileOutputStream fos = new FileOutputStream(f)) {
+					fos.write(b);
+				}
+				writeCount.incrementAndGet();
+				return Boolean.TRUE;
+
+			}
+		});
+		classWrites.add(result);
+
+	}
+
+	@Override
+	public void waitUntilComplete() throws IOException, InterruptedException, ExecutionException {
+		long waitStarted = System.nanoTime();
+		initialClean.get();
+		for (Future<Boolean> future : classWrites) {
+			future.get();
+		}
+
+		if(sync) {
+			int deleteCount = 0;
+			for (String className : previousManifest.keySet()) {
+				if(!manifest.containsKey(className)) {
+					deleteStale(className);
+					deleteCount++;
+				}
+			}
+
+			writeManifest();
+			System.out.println("Sync wrote " + writeCount.get() + " classes, deleted " + deleteCount + " stale classes");
+		}
+
+		System.out.println("Writing classes added " + (System.nanoTime()-waitStarted)/1000000 + "ms");
+
+	}
+
+	/**
+	 * Cancels the writes that haven't started.
+	 * The folder is left part written, without a manifest; so the next run will wipe & rewrite it.
+	 */
+	@Override
+	public void abort() {
+		initialClean.cancel(false);
+		for (Future<Boolean> future : classWrites) {
+			future.cancel(false);
+		}
+		try {
+			Files.deleteIfExists(manifestFile.toPath());
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	@Override
+	public File getOutput() {
+		return root;
+	}
+
+	/**
+	 * Deletes the file of a class that is no longer produced, along with any of its folders that are left empty.
+	 *
+	 * @param className
+	 * @throws IOException
+	 */
+	private void deleteStale(String className) throws IOException {
+		File f = new File(root, className + ".class");
+		Files.deleteIfExists(f.toPath());
+
+		File parent = f.getParentFile();
+		while(!parent.equals(root)) {
+			final String[] remaining = parent.list();
+			if(remaining==null || remaining.length>0 || !parent.delete()) {
+				break;
+			}
+			parent = parent.getParentFile();
+		}
+	}
+}
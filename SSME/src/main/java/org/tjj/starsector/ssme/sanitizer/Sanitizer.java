@@ -1,427 +1,953 @@
-package org.tjj.starsector.ssme.sanitizer;
-
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.Enumeration;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Locale;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Set;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
-
-import org.objectweb.asm.ClassReader;
-import org.objectweb.asm.ClassWriter;
-import org.objectweb.asm.tree.ClassNode;
-import org.tjj.starsector.ssme.ClassAlreadyLoadedException;
-import org.tjj.starsector.ssme.ClassProvider;
-import org.tjj.starsector.ssme.ObfuscationMap;
-import org.tjj.starsector.ssme.Utils;
-import org.tjj.starsector.ssme.Utils.InternalClassName;
-
-public class Sanitizer implements SanitizerContext {
-
-	/**
-	 * classes that need to be sanitised
-	 */
-	private final Set<String> workingSet;
-	/**
-	 * classes that have been processed
-	 */
-	private final Map<String, ClassMapping> processedClasses;
-	/**
-	 * for avoiding upper/lower case naming collisions.
-	 * Not a problem inside the VM, but writing out the classes to a filesystem that cannot distinguish between the two is a problem. 
-	 */
-	private final Set<String> processedLowercaseClassNames;
-	
-	private final PackageMapping rootPackage = new PackageMapping("", false);
-
-	private int sanitisedPackageCount = 0;
-	private int sanitisedClassCount = 0;
-	private int sanitisedEnumCount = 0;
-	private int sanitisedInterfaceCount = 0;
-	private int sanitisedInterfaceMethodCount = 0;
-
-	private final ClassProvider pool;
-	
-	private final ExecutorService executor = new ScheduledThreadPoolExecutor(Runtime.getRuntime().availableProcessors());
-	
-	private final SanitizedWriter writer;
-
-	public Sanitizer(final ClassProvider pool, final boolean writeClasses, String... obfuscatedJars) throws IOException, InterruptedException, ExecutionException {
-
-		long startTime = System.nanoTime();
-		
-		this.pool = pool;
-		this.workingSet = new HashSet<>();
-		processedClasses = new HashMap<>();
-		processedLowercaseClassNames = new HashSet<>();
-
-		if (writeClasses) {
-			writer = new SanitizedWriter("deobfuscated", executor);
-		} else {
-			writer = null;
-		}
-		
-		for (final String jarName : obfuscatedJars) {
-
-			try (JarFile jar = new JarFile(jarName)) {
-
-				Enumeration<JarEntry> entries = jar.entries();
-
-				while (entries.hasMoreElements()) {
-					JarEntry entry = entries.nextElement();
-
-					if (!entry.isDirectory()) {
-						String filename = entry.getName();
-						if (filename.endsWith(".class")) {
-							final String classname = filename.substring(0, filename.length() - 6);
-
-							if (!workingSet.add(classname)) {
-								System.out.println("duplicate class: " + classname);
-							} else {
-								try (InputStream is = jar.getInputStream(entry)) {
-
-									ClassNode classNode = new ClassNode();
-									ClassReader cr = new ClassReader(is);
-									cr.accept(classNode, 0);
-									processedClasses.put(classname, new ClassMapping(this, classNode));
-								}
-							}
-						}
-					}
-				}
-			}
-		}		
-		
-		
-		// multithreaded zip decompression experiment.
-
-//		final int threads = Runtime.getRuntime().availableProcessors();
-//
-//		List<Future<Boolean>> jobFutures = new ArrayList<>();
-//		
-//		final List<Future<List<SimpleEntry<String, ClassMapping>>>> futures = new ArrayList<>();
-//
-//		for (final String jarName : obfuscatedJars) {
-//
-//			jobFutures.add(executor.submit(new Callable<Boolean>() {
-//
-//				@Override
-//				public Boolean call() throws IOException {
-//					byte[] jarBytes = Files.readAllBytes(new File(jarName).toPath());
-//
-//					noMoreEntries: for (int i = 0; i < threads; i++) {
-//
-//						final JarInputStream jis = new JarInputStream(new ByteArrayInputStream(jarBytes));
-//						JarEntry entry = null;
-//						for (int j = 0; j <= i; j++) {
-//							entry = jis.getNextJarEntry();
-//							if (entry == null) {
-//								break noMoreEntries;
-//							}
-//						}
-//
-//						final JarEntry firstEntry = entry;
-//
-//						futures.add(executor.submit(new Callable<List<SimpleEntry<String, ClassMapping>>>() {
-//							@Override
-//							public List<SimpleEntry<String, ClassMapping>> call() throws IOException {
-//								List<SimpleEntry<String, ClassMapping>> loadedClasses = new ArrayList<>();
-//
-//								JarEntry entry = firstEntry;
-//
-//								complete: while (true) {
-//
-//									if (!entry.isDirectory()) {
-//										String filename = entry.getName();
-//										if (filename.endsWith(".class")) {
-//											final String classname = filename.substring(0, filename.length() - 6);
-//
-//											ClassNode classNode = new ClassNode();
-//											ClassReader cr = new ClassReader(jis);
-//											cr.accept(classNode, 0);
-//
-//											loadedClasses.add(new SimpleEntry<>(classname, new ClassMapping(Sanitizer.this, classNode)));
-//										}
-//									}
-//									
-//									for (int i = 0; i < threads; i++) {
-//										entry = jis.getNextJarEntry();
-//										if (entry == null) {
-//											break complete;
-//										}
-//									}
-//									
-//								}
-//								return loadedClasses;
-//							}
-//						}));
-//
-//					}
-//
-//					return Boolean.TRUE;
-//				}
-//			}));
-//
-//		}
-//		
-//		for (Future<Boolean> future : jobFutures) {
-//			future.get();
-//		}
-//
-//		for (Future<List<SimpleEntry<String, ClassMapping>>> future : futures) {
-//			List<SimpleEntry<String, ClassMapping>> mappings = future.get();
-//			for (SimpleEntry<String, ClassMapping> mapping : mappings) {
-//
-//				final String classname = mapping.getKey();
-//				final ClassMapping cm = mapping.getValue();
-//
-//				if (!workingSet.add(classname)) {
-//					System.out.println("duplicate class: " + classname);
-//				} else {
-//					processedClasses.put(classname, cm);
-//				}
-//			}
-//		}
-
-		System.out.println("new Sanitizer took: " + (System.nanoTime()-startTime)/1000000 + "ms");
-		
-	}
-
-	/**
-	 * retrieve the list of class name mappings that the sanitiser has created.
-	 * @return
-	 */
-	Map<String,String> copyClassnameMappings() {
-
-		Map<String,String> mapping = new HashMap<>();
-		
-		for (String key : workingSet) {
-			mapping.put(Utils.InternalClassName.toBinaryName(key), Utils.InternalClassName.toBinaryName(processedClasses.get(key).getNewName()));
-		}
-		
-		return mapping;
-	}
-	public Sanitizer apply() throws ClassAlreadyLoadedException, IOException, ClassNotFoundException, InterruptedException, ExecutionException {
-		final long start = System.nanoTime();
-
-		// before we begin deobfuscating classes, we need to register the package mappings
-		// defined by the meaningful Type names specified in ObfuscationMap.
-		// this is so any obfuscated package elements will have their manually supplied deobfuscated names used by the automatically deobfuscated classes in the same (and sub) packages. 
-		for(Entry<String,String> deobfuscationMapping : getObfuscationMap().deobfuscationMap.entrySet()) {
-			recordPackageElements(Utils.InternalClassName.getPackage(deobfuscationMapping.getKey()), Utils.InternalClassName.getPackage(deobfuscationMapping.getValue())); 
-		}
-		
-		for (String obfName : workingSet) {
-			
-			ClassMapping cm = get(obfName);
-			
-			ClassWriter cw = new ClassWriter(0);
-			
-			cm.classNode.accept(new SanitizingVisitor(Sanitizer.this, cw));
-			final byte [] bytes = cw.toByteArray();
-			pool.saveTransformation(Utils.InternalClassName.toBinaryName(cm.getNewName()), bytes);
-			
-			if(writer!=null) {
-				writer.addClass(cm.getNewName(), bytes);
-			}
-		}
-
-		if(writer!=null) {
-			writer.waitUntilComplete();
-		}
-		
-		executor.shutdown();
-		
-		final long end = System.nanoTime();
-		System.out.println("Sanitiser.apply completed in " + (end-start)/1000000 + "ms");
-		return this;
-	}
-	
-	@Override
-	public ObfuscationMap getObfuscationMap() {
-		return pool.getObfuscationMap();
-	}
-	
-	
-	/**
-	 * Attempts to register the given output name.
-	 * 
-	 * @return boolean indicating whether the given name could be registered as unique. If not, calling code should choose a new name or Error.
-	 * 
-	 */
-	@Override
-	public boolean registerOutputName(String name) {
-		final String outputName = name.toLowerCase(Locale.ROOT);
-		return processedLowercaseClassNames.add(outputName);
-	}
-	
-	/**
-	 * TODO special case "access$0" compiler generated synthetic accessor methods.
-	 * DONE this$0 synthetic fields, and Class$0 anonymous classes.
-	 * At the moment they're being deobfuscated due to the '$' symbol.
-	 * 
-	 * @param classname
-	 * @return
-	 */
-	@Override
-	public ClassMapping get(String classname) {
-		ClassMapping cm = processedClasses.get(classname);
-		if(cm==null) {
-			try {
-				cm = new ClassMapping(this, load(classname));
-				processedClasses.put(classname, cm);
-			} catch (ClassNotFoundException | IOException e) {
-				e.printStackTrace();
-			}
-		}
-		return cm;
-	}
-	/**
-	 * 
-	 * @param packagePath Current, possibly obfuscated package path
-	 * @param deobfuscatedPath New package path to map to. If null, package elements will be checked for deobfuscation, and new element names generated if necessary.
-	 * @return
-	 */
-	@Override
-	public String recordPackageElements(final String packagePath, String deobfuscatedPath) {
-		
-		StringBuilder result = null;
-		String [] packageElements = packagePath.split("/");
-		String [] deobfuscatedPackageElements = null;
-		
-		if(deobfuscatedPath!=null) {
-			deobfuscatedPackageElements = deobfuscatedPath.split("/");
-			if(deobfuscatedPackageElements.length!=packageElements.length) {
-				throw new RuntimeException("packages are not the same depth");
-			}
-		}
-		
-		PackageMapping current = rootPackage;
-		
-		for(int i = 0;i < packageElements.length;i++) {
-
-			final String packageElement = packageElements[i];				
-			PackageMapping next = current.subpackages.get(packageElement);
-			
-			if(next==null) {
-				//visiting a new package
-				if(result==null) result = constructPackage(packageElements, i);
-				result.append(packageElement);
-				
-				final String newPackageElement;
-				final boolean deobfuscated;
-				
-				if(deobfuscatedPackageElements!=null) {
-					newPackageElement = deobfuscatedPackageElements[i];
-					deobfuscated = !newPackageElement.equals(packageElement);
-				}
-				else {
-					if(ClassMapping.isObfuscatedPackage(packageElement) || !registerOutputName(result.toString())) {
-						newPackageElement = "package" + incrementPackageCount();
-						deobfuscated = true;
-						result.setLength(result.length()-packageElement.length());
-						result.append(newPackageElement);
-						if(!registerOutputName(result.toString())) {
-							throw new RuntimeException("unexpected package naming collision: " + result.toString());
-						}
-					}
-					else {
-						newPackageElement = packageElement;
-						deobfuscated = false;
-					}
-				}
-				
-				next = new PackageMapping(newPackageElement, deobfuscated);
-				current.subpackages.put(packageElement, next);
-
-				result.append('/');
-			}
-			else {
-				if(next.isDeobfuscated()) {
-					if(result==null) result = constructPackage(packageElements, i);
-				}
-				if(result!=null) {
-					result.append(next.getNewName()).append("/");
-				}
-			}
-			current = next;
-		}
-		
-		if(result!=null) {
-			return result.toString();
-		}
-		else {
-			return packagePath;
-		}
-	}		
-	
-
-	private static StringBuilder constructPackage(String [] packageElements, int upto) {
-		StringBuilder sb = new StringBuilder();
-		for(int i = 0 ;i < upto;i++) {
-			sb.append(packageElements[i]).append('/');
-		}
-		return sb;
-	}	
-	
-	/**
-	 * 
-	 * @param classname
-	 * @return
-	 */
-	public ClassMapping getFromWorkingSet(String classname) {
-		if(workingSet.contains(classname)) {
-			return get(classname);
-		}
-		return null;
-	}
-
-	@Override
-	public ClassNode load(String classname) throws ClassNotFoundException, IOException {
-		ClassReader cr = new ClassReader(pool.getClass(Utils.InternalClassName.toBinaryName(classname)));
-		
-		ClassNode classNode = new ClassNode();
-		cr.accept(classNode, 0);
-		
-		return classNode;
-	}
-
-	@Override
-	public int incrementInterfaceMethodCount() {
-		return sanitisedInterfaceMethodCount++;
-	}
-
-	@Override
-	public int incrementInterfaceCount() {
-		return sanitisedInterfaceCount++;
-	}
-
-	@Override
-	public int incrementEnumCount() {
-		return sanitisedEnumCount++;
-	}
-
-	@Override
-	public int incrementClassCount() {
-		return sanitisedClassCount++;
-	}
-
-	@Override
-	public int incrementPackageCount() {
-		return sanitisedPackageCount++;
-	}
-	
-	
-	@Override
-	public boolean inWorkingSet(String classname) {
-		return workingSet.contains(classname);
-	}	
-}
+package org.tjj.starsector.ssme.sanitizer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.tree.ClassNode;
+import org.tjj.starsector.ssme.ClassAlreadyLoadedException;
+import org.tjj.starsector.ssme.ClassProvider;
+import org.tjj.starsector.ssme.ClassSource;
+import org.tjj.starsector.ssme.ObfuscationMap;
+import org.tjj.starsector.ssme.Utils;
+import org.tjj.starsector.ssme.Utils.InternalClassName;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+public class Sanitizer implements SanitizerContext, ClassSource {
+
+	/**
+	 * classes that need to be sanitised
+	 */
+	private final Set<String> workingSet;
+	/**
+	 * classes that have been processed
+	 */
+	private final ConcurrentMap<String, ClassMapping> processedClasses;
+	/**
+	 * for avoiding upper/lower case naming collisions.
+	 * Not a problem inside the VM, but writing out the classes to a filesystem that cannot distinguish between the two is a problem. 
+	 */
+	private final Set<String> processedLowercaseClassNames;
+	
+	private final PackageMapping rootPackage = new PackageMapping("", false);
+	
+	private final HierarchyIndex hierarchy = new HierarchyIndex(this);
+	
+	private final DescriptorRemapper remapper = new DescriptorRemapper(this);
+	
+	/**
+	 * only populated by applyLazily(); the working set, keyed by the binary name each class will be requested by.
+	 */
+	private final ConcurrentMap<String, ClassMapping> deferredClasses = new ConcurrentHashMap<>();
+	/**
+	 * the number of deferred classes that haven't yet been rewritten.
+	 */
+	private final AtomicInteger deferredRemaining = new AtomicInteger();
+	/**
+	 * the rewrites of the deferred classes that have been requested so far.
+	 */
+	private final ConcurrentMap<String, FutureTask<byte[]>> deferredRewrites = new ConcurrentHashMap<>();
+
+	private int sanitisedPackageCount = 0;
+	private int sanitisedClassCount = 0;
+	private int sanitisedEnumCount = 0;
+	private int sanitisedInterfaceCount = 0;
+	private int sanitisedInterfaceMethodCount = 0;
+
+	private final ClassProvider pool;
+	
+	/**
+	 * loads the skeletons of the classes outside the working set; closed once every class has been rewritten.
+	 */
+	private final ClassSkeletons skeletons;
+	
+	private final int threads = Runtime.getRuntime().availableProcessors();
+	
+	private final ExecutorService executor = new ScheduledThreadPoolExecutor(threads);
+	
+	/**
+	 * if non-null, the sanitized classes are written into this sink.
+	 */
+	private ClassSink writer;
+	
+	/**
+	 * if non-null, the sanitized classes are also recorded into this cache.
+	 */
+	private SanitizerCache cache;
+	
+	/**
+	 * the previous run recorded in the cache, if any; its names are reused for the classes that haven't changed since.
+	 */
+	private SanitizerHistory history;
+	
+	/**
+	 * the package elements generated by this run, keyed by the obfuscated package path they replace.
+	 */
+	private final Map<String, String> generatedPackages = new TreeMap<>();
+	
+	/**
+	 * number of classes whose bytes were carried over from the previous run, rather than rewritten.
+	 */
+	private final AtomicInteger reusedCount = new AtomicInteger();
+	
+	/**
+	 * if non-null, the working set is named from these mappings rather than having its names inferred.
+	 */
+	private MappingSet importedMappings;
+	
+	/**
+	 * the working set in name order, once its names have been resolved.
+	 */
+	private ClassMapping[] resolvedClasses;
+	
+	/**
+	 * number of classes handled by each parallel task (parsing, member naming & rewriting).
+	 * Large enough to amortise the task overhead, small enough to keep every core busy.
+	 */
+	private static final int BATCH_SIZE = 32;
+	
+	/**
+	 * number of rewrite batches allowed to be in flight (queued, running, or awaiting commit) per thread.
+	 * Bounds the sanitized bytes held outside the ClassProvider, without starving the executor while a batch is being committed.
+	 */
+	private static final int REWRITES_IN_FLIGHT_PER_THREAD = 2;
+	
+	/**
+	 * if set, the bytes allocated by the rewrite are measured & reported; for profiling, as it's only possible on HotSpot.
+	 */
+	private static final boolean MEASURE_ALLOCATION = Boolean.getBoolean("org.tjj.starsector.ssme.sanitizer.measureAllocation");
+	
+	/**
+	 * Resolves the method & field names of a batch of classes whose ancestors have already been resolved.
+	 */
+	private static class MemberResolver implements Callable<Boolean> {
+		
+		private final List<ClassMapping> classes;
+		
+		MemberResolver(List<ClassMapping> classes) {
+			this.classes = classes;
+		}
+
+		@Override
+		public Boolean call() {
+			for (ClassMapping cm : classes) {
+				cm.getMethodMap();
+				cm.getFieldMap();
+			}
+			return Boolean.TRUE;
+		}
+	}
+	
+	/**
+	 * Rewrites a batch of classes, all of whose names have already been resolved.
+	 */
+	private class ClassRewriter implements Callable<byte[][]> {
+		
+		private final ClassMapping[] classes;
+		private final int from;
+		private final int to;
+		
+		ClassRewriter(ClassMapping[] classes, int from, int to) {
+			this.classes = classes;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public byte[][] call() {
+			final long allocatedBefore = MEASURE_ALLOCATION ? threadAllocatedBytes() : -1;
+			
+			final byte[][] rewritten = new byte[to-from][];
+			for (int i = from; i < to; i++) {
+				rewritten[i-from] = rewriteOrReuse(classes[i]);
+			}
+			
+			if(allocatedBefore>=0) {
+				rewriteAllocatedBytes.addAndGet(threadAllocatedBytes()-allocatedBefore);
+			}
+			return rewritten;
+		}
+	}
+	
+	/**
+	 * 
+	 * @param cm
+	 * @return the sanitized bytes of the class. The names of the entire working set must already have been resolved.
+	 */
+	private byte[] rewrite(ClassMapping cm) {
+		ClassWriter cw = new ClassWriter(0);
+		cm.accept(new SanitizingVisitor(this, cw));
+		return cw.toByteArray();
+	}
+	
+	/**
+	 * When recording to a cache, the digests that tell the next run whether the class needs rewriting are taken,
+	 * and if they match those of the previous run, its bytes are reused.
+	 * 
+	 * @param cm
+	 * @return the sanitized bytes of the class.
+	 */
+	private byte[] rewriteOrReuse(ClassMapping cm) {
+		if(cache==null) {
+			return rewrite(cm);
+		}
+		final byte[] original = cm.getBytes();
+		final HashCode input = Hashing.sha1().hashBytes(original);
+		final HashCode environment = ClassDigests.environment(this, original);
+		cm.setRewriteDigests(input, environment);
+		
+		if(history!=null) {
+			final byte[] previous = history.takeReusableBytes(cm, input, environment);
+			if(previous!=null) {
+				reusedCount.incrementAndGet();
+				return previous;
+			}
+		}
+		return rewrite(cm);
+	}
+	
+	/**
+	 * bytes allocated by the ClassRewriters, if MEASURE_ALLOCATION is set.
+	 */
+	private final AtomicLong rewriteAllocatedBytes = new AtomicLong();
+	
+	/**
+	 * @return the number of bytes allocated by the current thread, or -1 if the VM cannot measure it.
+	 */
+	private static long threadAllocatedBytes() {
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if(threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean)threads).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+	
+	/**
+	 * Inflates & parses a batch of class entries from an obfuscated jar.
+	 * Entries are read concurrently from the same JarFile; ZipFile only synchronizes the raw reads, the inflation happens on the calling thread.
+	 */
+	private class EntryParser implements Callable<ClassMapping[]> {
+		
+		private final JarFile jar;
+		private final List<JarEntry> entries;
+		
+		EntryParser(JarFile jar, List<JarEntry> entries) {
+			this.jar = jar;
+			this.entries = entries;
+		}
+
+		@Override
+		public ClassMapping[] call() throws IOException {
+			final ClassMapping[] mappings = new ClassMapping[entries.size()];
+			for (int i = 0; i < mappings.length; i++) {
+				try (InputStream is = jar.getInputStream(entries.get(i))) {
+					
+					ClassNode classNode = new ClassNode();
+					ClassReader cr = new ClassReader(is);
+					cr.accept(classNode, 0);
+					// the tree is discarded once the mapping has taken what it needs, the bytes are kept for rewriting.
+					mappings[i] = new ClassMapping(Sanitizer.this, classNode, true, cr.b);
+				}
+			}
+			return mappings;
+		}
+	}
+
+	public Sanitizer(final ClassProvider pool, final boolean writeClasses, String... obfuscatedJars) throws IOException, InterruptedException, ExecutionException {
+
+		long startTime = System.nanoTime();
+		
+		this.pool = pool;
+		skeletons = new ClassSkeletons(pool);
+		this.workingSet = new HashSet<>();
+		processedClasses = new ConcurrentHashMap<>();
+		processedLowercaseClassNames = new HashSet<>();
+
+		if (writeClasses) {
+			writer = new SanitizedWriter(SanitizedWriter.DEFAULT_FOLDER, true, executor);
+		} else {
+			writer = null;
+		}
+		
+		// the library classes the working set inherits from are needed as soon as naming begins.
+		skeletons.preload(executor);
+		
+		// Ingestion is a 3 stage pipeline:
+		// 1) walk each jar's central directory on this thread, claiming class names in jar order (so the 1st definition of a class still wins)
+		// 2) inflate & parse the claimed entries on the executor, in batches.
+		// 3) merge the parsed ClassMappings back into processedClasses, in the order they were claimed.
+		final List<JarFile> jars = new ArrayList<>(obfuscatedJars.length);
+		final List<Future<ClassMapping[]>> batches = new ArrayList<>();
+		final List<String[]> batchClassnames = new ArrayList<>();
+		
+		try {
+			for (final String jarName : obfuscatedJars) {
+				
+				final JarFile jar = new JarFile(jarName);
+				jars.add(jar);
+				
+				List<JarEntry> batch = new ArrayList<>(BATCH_SIZE);
+				List<String> classnames = new ArrayList<>(BATCH_SIZE);
+				
+				Enumeration<JarEntry> entries = jar.entries();
+				
+				while (entries.hasMoreElements()) {
+					JarEntry entry = entries.nextElement();
+					
+					if (!entry.isDirectory()) {
+						String filename = entry.getName();
+						if (filename.endsWith(".class")) {
+							final String classname = filename.substring(0, filename.length() - 6);
+							
+							if (!workingSet.add(classname)) {
+								System.out.println("duplicate class: " + classname);
+							} else {
+								batch.add(entry);
+								classnames.add(classname);
+								
+								if(batch.size()==BATCH_SIZE) {
+									batches.add(executor.submit(new EntryParser(jar, batch)));
+									batchClassnames.add(classnames.toArray(new String[classnames.size()]));
+									batch = new ArrayList<>(BATCH_SIZE);
+									classnames = new ArrayList<>(BATCH_SIZE);
+								}
+							}
+						}
+					}
+				}
+				
+				if(!batch.isEmpty()) {
+					batches.add(executor.submit(new EntryParser(jar, batch)));
+					batchClassnames.add(classnames.toArray(new String[classnames.size()]));
+				}
+			}
+			
+			for (int i = 0; i < batches.size(); i++) {
+				final ClassMapping[] mappings = batches.get(i).get();
+				final String[] classnames = batchClassnames.get(i);
+				for (int j = 0; j < mappings.length; j++) {
+					processedClasses.put(classnames[j], mappings[j]);
+				}
+			}
+		}
+		finally {
+			// if a batch failed, don't bother starting the ones still queued.
+			for (Future<ClassMapping[]> future : batches) {
+				future.cancel(false);
+			}
+			for (JarFile jar : jars) {
+				jar.close();
+			}
+		}
+
+		System.out.println("new Sanitizer took: " + (System.nanoTime()-startTime)/1000000 + "ms");
+		
+	}
+
+	/**
+	 * retrieve the list of class name mappings that the sanitiser has created.
+	 * @return
+	 */
+	Map<String,String> copyClassnameMappings() {
+
+		Map<String,String> mapping = new HashMap<>();
+		
+		for (String key : workingSet) {
+			mapping.put(Utils.InternalClassName.toBinaryName(key), Utils.InternalClassName.toBinaryName(processedClasses.get(key).getNewName()));
+		}
+		
+		return mapping;
+	}
+	/**
+	 * Record the output of apply() into the supplied cache, so that subsequent launches can skip sanitization.
+	 * 
+	 * @param cache
+	 * @return this
+	 */
+	public Sanitizer recordTo(SanitizerCache cache) {
+		this.cache = cache;
+		return this;
+	}
+	
+	/**
+	 * Write the output of apply() into the supplied sink, in place of the sanitized class folder requested by the constructor (if any).
+	 * 
+	 * @param sink
+	 * @return this
+	 */
+	public Sanitizer writeTo(ClassSink sink) {
+		this.writer = sink;
+		return this;
+	}
+	
+	/**
+	 * Name the working set from a mapping file, rather than inferring the names; anything the mappings don't mention keeps its obfuscated name.
+	 * The ObfuscationMap still takes precedence over the imported class names.
+	 * 
+	 * @param format
+	 * @param in the mappings; read in their entirety, but not closed.
+	 * @return this
+	 * @throws IOException if the mappings can't be read, or are malformed.
+	 */
+	public Sanitizer importMappings(MappingFormat format, Reader in) throws IOException {
+		final long start = System.nanoTime();
+		final MappingSet mappings = new MappingSet();
+		format.read(in, mappings);
+		mappings.complete();
+		importedMappings = mappings;
+		System.out.println("Sanitiser imported the mappings of " + mappings.size() + " classes in " + (System.nanoTime()-start)/1000000 + "ms");
+		return this;
+	}
+	
+	/**
+	 * Writes the complete mappings of the working set (every class, and the methods & fields that were renamed) in the given format.
+	 * Only possible once apply() or applyLazily() has been called.
+	 * 
+	 * @param format
+	 * @param out neither flushed nor closed.
+	 * @throws IOException
+	 */
+	public void exportMappings(MappingFormat format, Writer out) throws IOException {
+		exportMappings(format.newWriter(out));
+	}
+	
+	/**
+	 * Passes the complete mappings of the working set to the visitor, a class at a time in name order.
+	 * Only possible once apply() or applyLazily() has been called.
+	 * 
+	 * @param visitor
+	 * @throws IOException
+	 */
+	public void exportMappings(MappingVisitor visitor) throws IOException {
+		if(resolvedClasses==null) {
+			throw new IllegalStateException("The mappings aren't known until the Sanitizer has been applied");
+		}
+		for (ClassMapping cm : resolvedClasses) {
+			final String name = cm.getName();
+			visitor.visitClass(name, cm.getNewName());
+			
+			cm.getMethodTable().visitRenamed(visitor, remapper);
+			
+			final Map<String, String> fieldMap = cm.getFieldMap();
+			for (ClassMapping.Field field : cm.getFields()) {
+				final String newName = fieldMap.get(field.oldName);
+				if(!newName.equals(field.oldName)) {
+					visitor.visitField(name, field.oldName, field.desc, newName, remapper.mapType(field.desc));
+				}
+			}
+		}
+	}
+	
+	public Sanitizer apply() throws ClassAlreadyLoadedException, IOException, ClassNotFoundException, InterruptedException, ExecutionException {
+		final long start = System.nanoTime();
+
+		if(cache!=null && importedMappings==null) {
+			history = cache.readHistory();
+		}
+		
+		final ClassMapping[] classes = resolveWorkingSet();
+		
+		System.out.println("Sanitiser name resolution took " + (System.nanoTime()-start)/1000000 + "ms");
+		
+		if(cache!=null) {
+			cache.begin();
+		}
+		
+		// Phase 2: every name is known, so the classes can be rewritten independently of one another.
+		// Only a bounded window of batches is in flight; each batch is committed on this thread, in name order, as soon as it's done
+		// & the next batch is only submitted as one is committed.
+		// That way the obfuscated bytes of a class are released as its sanitized bytes are committed, rather than both being held for the entire working set.
+		final Deque<Future<byte[][]>> rewrites = new ArrayDeque<>();
+		final int maxInFlight = threads*REWRITES_IN_FLIGHT_PER_THREAD;
+		boolean writeComplete = false;
+		boolean cacheComplete = false;
+		try {
+			int nextBatch = 0;
+			while(nextBatch < classes.length && rewrites.size() < maxInFlight) {
+				rewrites.add(executor.submit(new ClassRewriter(classes, nextBatch, Math.min(nextBatch + BATCH_SIZE, classes.length))));
+				nextBatch += BATCH_SIZE;
+			}
+			
+			int i = 0;
+			while(!rewrites.isEmpty()) {
+				final byte[][] batch = rewrites.peek().get();
+				rewrites.poll();
+				
+				if(nextBatch < classes.length) {
+					rewrites.add(executor.submit(new ClassRewriter(classes, nextBatch, Math.min(nextBatch + BATCH_SIZE, classes.length))));
+					nextBatch += BATCH_SIZE;
+				}
+				
+				for (byte[] bytes : batch) {
+					final ClassMapping cm = classes[i++];
+					if(writer!=null) {
+						writer.addClass(cm.getNewName(), bytes);
+					}
+					if(cache!=null) {
+						cache.addClass(cm, bytes);
+					}
+					// the rewriters may be loading library classes through the pool at the same time, which ClassProviders permit.
+					pool.saveTransformation(Utils.InternalClassName.toBinaryName(cm.getNewName()), bytes);
+					// committed; only the compact record of the class is retained.
+					cm.release();
+				}
+			}
+			
+			if(MEASURE_ALLOCATION && threadAllocatedBytes()>=0) {
+				System.out.println("Sanitiser rewrite allocated " + rewriteAllocatedBytes.get()/Math.max(1, classes.length) + " bytes per class");
+			}
+			if(history!=null) {
+				System.out.println("Sanitiser reused the previous bytes of " + reusedCount.get() + " classes, rewrote " + (classes.length-reusedCount.get()));
+				// the previous cache is about to be replaced.
+				history.close();
+			}
+	
+			if(writer!=null) {
+				writer.waitUntilComplete();
+			}
+			writeComplete = true;
+			
+			if(cache!=null) {
+				for (Entry<String, String> generatedPackage : generatedPackages.entrySet()) {
+					cache.addPackage(generatedPackage.getKey(), generatedPackage.getValue());
+				}
+				cache.complete(writer!=null ? writer.getOutput() : null);
+				cacheComplete = true;
+			}
+		}
+		finally {
+			for (Future<byte[][]> rewrite : rewrites) {
+				rewrite.cancel(false);
+			}
+			if(history!=null) {
+				history.close();
+			}
+			if(writer!=null && !writeComplete) {
+				writer.abort();
+			}
+			if(cache!=null && !cacheComplete) {
+				cache.abort();
+			}
+			// every class has been rewritten (or never will be), so they're no longer needed.
+			skeletons.close();
+		}
+		
+		executor.shutdown();
+		
+		final long end = System.nanoTime();
+		System.out.println("Sanitiser.apply completed in " + (end-start)/1000000 + "ms");
+		return this;
+	}
+	
+	/**
+	 * Resolves every name up front, but only rewrites each class when it's first requested through getClassBytes(...)
+	 * e.g. when the class is loaded, as only some of the game's classes are loaded by a typical session.
+	 * 
+	 * Nothing is written or recorded, as writing & recording need every class up front. 
+	 * 
+	 * @return this
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	public Sanitizer applyLazily() throws InterruptedException, ExecutionException {
+		if(writer!=null || cache!=null) {
+			throw new IllegalStateException("Sanitized classes cannot be written or recorded lazily");
+		}
+		final long start = System.nanoTime();
+		
+		for (ClassMapping cm : resolveWorkingSet()) {
+			deferredClasses.put(Utils.InternalClassName.toBinaryName(cm.getNewName()), cm);
+		}
+		deferredRemaining.set(deferredClasses.size());
+		if(deferredClasses.isEmpty()) {
+			skeletons.close();
+		}
+		
+		// deferred rewrites are done by the threads requesting them.
+		executor.shutdown();
+		
+		System.out.println("Sanitiser.applyLazily completed in " + (System.nanoTime()-start)/1000000 + "ms");
+		return this;
+	}
+	
+	@Override
+	public boolean provides(String classname) {
+		return deferredClasses.containsKey(classname);
+	}
+	
+	/**
+	 * Rewrites the requested class the first time it's requested, and returns the same bytes to every subsequent request.
+	 * Concurrent requests for the same class wait for a single rewrite.
+	 */
+	@Override
+	public byte[] getClassBytes(String classname) {
+		FutureTask<byte[]> rewrite = deferredRewrites.get(classname);
+		if(rewrite==null) {
+			final ClassMapping cm = deferredClasses.get(classname);
+			if(cm==null) {
+				return null;
+			}
+			final FutureTask<byte[]> task = new FutureTask<>(new Callable<byte[]>() {
+				@Override
+				public byte[] call() {
+					final byte[] b = rewrite(cm);
+					// only the compact record of the class is needed from now on.
+					cm.release();
+					if(deferredRemaining.decrementAndGet()==0) {
+						// every deferred class has been rewritten.
+						skeletons.close();
+					}
+					return b;
+				}
+			});
+			rewrite = deferredRewrites.putIfAbsent(classname, task);
+			if(rewrite==null) {
+				rewrite = task;
+				task.run();
+			}
+		}
+		
+		try {
+			return Uninterruptibles.getUninterruptibly(rewrite);
+		}
+		catch(ExecutionException e) {
+			if(e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException)e.getCause();
+			}
+			throw new IllegalStateException("Failed sanitizing " + classname, e.getCause());
+		}
+	}
+	
+	/**
+	 * Phase 1 of both apply() & applyLazily(); registers the package mappings & resolves the names of the entire working set.
+	 * 
+	 * @return the working set, in name order.
+	 * @throws InterruptedException
+	 * @throws ExecutionException
+	 */
+	private ClassMapping[] resolveWorkingSet() throws InterruptedException, ExecutionException {
+		// before we begin deobfuscating classes, we need to register the package mappings
+		// defined by the meaningful Type names specified in ObfuscationMap.
+		// this is so any obfuscated package elements will have their manually supplied deobfuscated names used by the automatically deobfuscated classes in the same (and sub) packages. 
+		for(Entry<String,String> deobfuscationMapping : getObfuscationMap().deobfuscationMap.entrySet()) {
+			recordPackageElements(Utils.InternalClassName.getPackage(deobfuscationMapping.getKey()), Utils.InternalClassName.getPackage(deobfuscationMapping.getValue())); 
+		}
+		
+		// Everything is done in name order, so the generated names (and the output) don't depend upon the number of threads.
+		final String[] classnames = workingSet.toArray(new String[workingSet.size()]);
+		Arrays.sort(classnames);
+		final ClassMapping[] classes = new ClassMapping[classnames.length];
+		for (int i = 0; i < classnames.length; i++) {
+			classes[i] = processedClasses.get(classnames[i]);
+		}
+		
+		if(importedMappings!=null) {
+			for (ClassMapping cm : classes) {
+				final MappingSet.ClassEntry entry = importedMappings.get(cm.getName());
+				cm.setImported(entry!=null ? entry : new MappingSet.ClassEntry(cm.getName()));
+			}
+		}
+		else if(history!=null) {
+			history.match(classes);
+		}
+		
+		resolveNames(classes);
+		resolvedClasses = classes;
+		return classes;
+	}
+	
+	/**
+	 * Phase 1: resolves the new names of the classes, and of their methods & fields.
+	 * 
+	 * Class names, and interface method names, are drawn from counters shared by the whole working set, so they're resolved serially.
+	 * The remaining members are numbered from their super class' counts, so they only need their ancestors to have been resolved first;
+	 * the hierarchy is resolved a depth at a time, with each depth done in parallel.
+	 * 
+	 * @param classes the working set, in name order.
+	 */
+	private void resolveNames(ClassMapping[] classes) throws InterruptedException, ExecutionException {
+		
+		for (ClassMapping cm : classes) {
+			cm.getNewName();
+		}
+		
+		for (ClassMapping cm : classes) {
+			if(ClassMapping.checkAccess(Opcodes.ACC_INTERFACE, cm.getAccess())) {
+				cm.getMethodMap();
+			}
+		}
+		
+		hierarchy.build(classes);
+		
+		for (List<ClassMapping> depth : hierarchy.getDepths()) {
+			final List<MemberResolver> resolvers = new ArrayList<>();
+			for (int from = 0; from < depth.size(); from += BATCH_SIZE) {
+				resolvers.add(new MemberResolver(depth.subList(from, Math.min(from + BATCH_SIZE, depth.size()))));
+			}
+			for (Future<Boolean> resolved : executor.invokeAll(resolvers)) {
+				resolved.get();
+			}
+		}
+	}
+	
+	@Override
+	public HierarchyIndex getHierarchyIndex() {
+		return hierarchy;
+	}
+	
+	/**
+	 * 
+	 * @return the descriptor & signature remappings shared by the ClassRewriters.
+	 */
+	DescriptorRemapper getDescriptorRemapper() {
+		return remapper;
+	}
+	
+	@Override
+	public ObfuscationMap getObfuscationMap() {
+		return pool.getObfuscationMap();
+	}
+	
+	
+	/**
+	 * Attempts to register the given output name.
+	 * 
+	 * @return boolean indicating whether the given name could be registered as unique. If not, calling code should choose a new name or Error.
+	 * 
+	 */
+	@Override
+	public boolean registerOutputName(String name) {
+		final String outputName = name.toLowerCase(Locale.ROOT);
+		return processedLowercaseClassNames.add(outputName);
+	}
+	
+	/**
+	 * TODO special case "access$0" compiler generated synthetic accessor methods.
+	 * DONE this$0 synthetic fields, and Class$0 anonymous classes.
+	 * At the moment they're being deobfuscated due to the '$' symbol.
+	 * 
+	 * @param classname
+	 * @return
+	 */
+	@Override
+	public ClassMapping get(String classname) {
+		ClassMapping cm = processedClasses.get(classname);
+		if(cm==null) {
+			try {
+				cm = new ClassMapping(this, load(classname));
+				// another thread may have beaten us to it; everyone must share the same mapping.
+				final ClassMapping existing = processedClasses.putIfAbsent(classname, cm);
+				if(existing!=null) {
+					cm = existing;
+				}
+			} catch (ClassNotFoundException | IOException e) {
+				e.printStackTrace();
+			}
+		}
+		return cm;
+	}
+	/**
+	 * 
+	 * @param packagePath Current, possibly obfuscated package path
+	 * @param deobfuscatedPath New package path to map to. If null, package elements will be checked for deobfuscation, and new element names generated if necessary.
+	 * @return
+	 */
+	@Override
+	public String recordPackageElements(final String packagePath, String deobfuscatedPath) {
+		
+		StringBuilder result = null;
+		String [] packageElements = packagePath.split("/");
+		String [] deobfuscatedPackageElements = null;
+		
+		if(deobfuscatedPath!=null) {
+			deobfuscatedPackageElements = deobfuscatedPath.split("/");
+			if(deobfuscatedPackageElements.length!=packageElements.length) {
+				throw new RuntimeException("packages are not the same depth");
+			}
+		}
+		
+		PackageMapping current = rootPackage;
+		
+		for(int i = 0;i < packageElements.length;i++) {
+
+			final String packageElement = packageElements[i];				
+			PackageMapping next = current.subpackages.get(packageElement);
+			
+			if(next==null) {
+				//visiting a new package
+				if(result==null) result = constructPackage(packageElements, i);
+				result.append(packageElement);
+				
+				final String newPackageElement;
+				final boolean deobfuscated;
+				
+				if(deobfuscatedPackageElements!=null) {
+					newPackageElement = deobfuscatedPackageElements[i];
+					deobfuscated = !newPackageElement.equals(packageElement);
+				}
+				else {
+					if(ClassMapping.isObfuscatedPackage(packageElement) || !registerOutputName(result.toString())) {
+						final String obfuscatedPath = constructPackage(packageElements, i).append(packageElement).toString();
+						final String previousElement = history!=null ? history.getPackageElement(obfuscatedPath) : null;
+						if(previousElement!=null) {
+							// its number is reserved, so it's still free.
+							newPackageElement = previousElement;
+						}
+						else {
+							newPackageElement = SanitizerHistory.PACKAGE_PREFIX + incrementPackageCount();
+						}
+						generatedPackages.put(obfuscatedPath, newPackageElement);
+						deobfuscated = true;
+						result.setLength(result.length()-packageElement.length());
+						result.append(newPackageElement);
+						if(!registerOutputName(result.toString())) {
+							throw new RuntimeException("unexpected package naming collision: " + result.toString());
+						}
+					}
+					else {
+						newPackageElement = packageElement;
+						deobfuscated = false;
+					}
+				}
+				
+				next = new PackageMapping(newPackageElement, deobfuscated);
+				current.subpackages.put(packageElement, next);
+
+				result.append('/');
+			}
+			else {
+				if(next.isDeobfuscated()) {
+					if(result==null) result = constructPackage(packageElements, i);
+				}
+				if(result!=null) {
+					result.append(next.getNewName()).append("/");
+				}
+			}
+			current = next;
+		}
+		
+		if(result!=null) {
+			return result.toString();
+		}
+		else {
+			return packagePath;
+		}
+	}		
+	
+
+	private static StringBuilder constructPackage(String [] packageElements, int upto) {
+		StringBuilder sb = new StringBuilder();
+		for(int i = 0 ;i < upto;i++) {
+			sb.append(packageElements[i]).append('/');
+		}
+		return sb;
+	}	
+	
+	/**
+	 * 
+	 * @param classname
+	 * @return
+	 */
+	public ClassMapping getFromWorkingSet(String classname) {
+		// the working set is always present in processedClasses, so a single lookup will do.
+		final ClassMapping cm = processedClasses.get(classname);
+		if(cm!=null && cm.isInWorkingSet()) {
+			return cm;
+		}
+		return null;
+	}
+
+	/**
+	 * Classes outside the working set are never rewritten, so only their skeletons are loaded.
+	 */
+	@Override
+	public ClassNode load(String classname) throws ClassNotFoundException, IOException {
+		return skeletons.get(classname);
+	}
+
+	// the counters skip over the numbers still held by classes that have kept their names from the previous run.
+	
+	@Override
+	public int incrementInterfaceMethodCount() {
+		while(isReserved(SanitizerHistory.INTERFACE_METHOD, sanitisedInterfaceMethodCount)) {
+			sanitisedInterfaceMethodCount++;
+		}
+		return sanitisedInterfaceMethodCount++;
+	}
+
+	@Override
+	public int incrementInterfaceCount() {
+		while(isReserved(SanitizerHistory.INTERFACE, sanitisedInterfaceCount)) {
+			sanitisedInterfaceCount++;
+		}
+		return sanitisedInterfaceCount++;
+	}
+
+	@Override
+	public int incrementEnumCount() {
+		while(isReserved(SanitizerHistory.ENUM, sanitisedEnumCount)) {
+			sanitisedEnumCount++;
+		}
+		return sanitisedEnumCount++;
+	}
+
+	@Override
+	public int incrementClassCount() {
+		while(isReserved(SanitizerHistory.CLASS, sanitisedClassCount)) {
+			sanitisedClassCount++;
+		}
+		return sanitisedClassCount++;
+	}
+
+	@Override
+	public int incrementPackageCount() {
+		while(isReserved(SanitizerHistory.PACKAGE, sanitisedPackageCount)) {
+			sanitisedPackageCount++;
+		}
+		return sanitisedPackageCount++;
+	}
+	
+	private boolean isReserved(int counter, int number) {
+		return history!=null && history.isReserved(counter, number);
+	}
+	
+	
+	@Override
+	public boolean inWorkingSet(String classname) {
+		return workingSet.contains(classname);
+	}	
+}
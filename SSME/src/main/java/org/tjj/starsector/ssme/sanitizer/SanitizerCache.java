@@ -0,0 +1,513 @@
+package org.tjj.starsector.ssme.sanitizer;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.tjj.starsector.ssme.ClassAlreadyLoadedException;
+import org.tjj.starsector.ssme.ClassProvider;
+import org.tjj.starsector.ssme.ObfuscationMap;
+import org.tjj.starsector.ssme.StarsectorModExpander;
+import org.tjj.starsector.ssme.Utils;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+
+/**
+ * On-disk cache of the Sanitizer's output.
+ *
+ * The obfuscated jars only change when the game is updated, so the result of sanitizing them is recorded
+ * (class name mappings, member mappings & the sanitized bytes) and restored straight into the ClassProvider on subsequent launches.
+ *
+ * The cache is keyed by the content of the obfuscated jars, the ObfuscationMap entries, any imported mapping file & the cache format version.
+ * If any of them change, the cache is ignored and will be overwritten by the next Sanitizer run.
+ * That run still reads the stale cache as its SanitizerHistory, so the classes that haven't changed keep their names (and usually their bytes).
+ *
+ * Where the sanitized classes were also written out (as a jar, or a folder) the cache records which, along with a cheap digest of what was written,
+ * so that output left behind by another run (e.g. one writing the other kind of output) is never mistaken for the output of this cache.
+ *
+ */
+public class SanitizerCache {
+
+	public static final String DEFAULT_FILENAME = "ssme_sanitizer.cache";
+
+	private static final int MAGIC = 0x53534D45; // "SSME"
+	/**
+	 * must be incremented whenever the file layout, or the Sanitizer's naming scheme changes.
+	 */
+	private static final int FORMAT_VERSION = 4;
+
+	private static final byte RECORD = 1;
+	private static final byte PACKAGE = 2;
+	private static final byte END = 0;
+
+	// the kinds of output the cache may have been written alongside
+	private static final String NO_OUTPUT = "none";
+	private static final String ARCHIVE_OUTPUT = "archive";
+	private static final String FOLDER_OUTPUT = "folder";
+
+	private final File file;
+	private final File tempFile;
+	private final byte[] key;
+
+	private DataOutputStream out;
+
+	/**
+	 *
+	 * @param file location of the cache.
+	 * @param obfuscationMap the ObfuscationMap the Sanitizer will be using.
+	 * @param obfuscatedJars the jars the Sanitizer will be sanitizing.
+	 * @throws IOException if any of the jars cannot be read.
+	 */
+	public SanitizerCache(File file, ObfuscationMap obfuscationMap, String... obfuscatedJars) throws IOException {
+		this(file, obfuscationMap, (File)null, obfuscatedJars);
+	}
+	
+	/**
+	 *
+	 * @param file location of the cache.
+	 * @param obfuscationMap the ObfuscationMap the Sanitizer will be using.
+	 * @param importedMappings the mapping file the Sanitizer will be importing, or null if it's inferring the names.
+	 * @param obfuscatedJars the jars the Sanitizer will be sanitizing.
+	 * @throws IOException if any of the jars, or the mapping file, cannot be read.
+	 */
+	public SanitizerCache(File file, ObfuscationMap obfuscationMap, File importedMappings, String... obfuscatedJars) throws IOException {
+		this.file = file;
+		this.tempFile = new File(file.getPath() + ".tmp");
+
+		final long start = System.nanoTime();
+
+		Hasher hasher = Hashing.sha1().newHasher();
+		hasher.putInt(FORMAT_VERSION);
+		hasher.putString(StarsectorModExpander.VERSION, StandardCharsets.UTF_8);
+
+		for (String jarName : obfuscatedJars) {
+			hasher.putString(jarName, StandardCharsets.UTF_8);
+			hasher.putBytes(com.google.common.io.Files.hash(new File(jarName), Hashing.sha1()).asBytes());
+		}
+
+		if(importedMappings!=null) {
+			hasher.putBytes(com.google.common.io.Files.hash(importedMappings, Hashing.sha1()).asBytes());
+		}
+
+		// BiMap iteration order isn't something we want to depend upon.
+		for (Entry<String, String> entry : new TreeMap<>(obfuscationMap.obfuscationMap).entrySet()) {
+			hasher.putString(entry.getKey(), StandardCharsets.UTF_8);
+			hasher.putString(entry.getValue(), StandardCharsets.UTF_8);
+		}
+
+		key = hasher.hash().asBytes();
+
+		System.out.println("SanitizerCache key took: " + (System.nanoTime()-start)/1000000 + "ms");
+	}
+
+	/**
+	 * Loads the cached classes into the supplied ClassProvider, provided the cache is present and matches the current inputs.
+	 * Nothing is saved into the provider unless the entire cache was read successfully.
+	 *
+	 * @param pool
+	 * @return true if the cache was restored, false if the Sanitizer needs to be run.
+	 * @throws ClassAlreadyLoadedException
+	 */
+	public boolean restore(ClassProvider pool) throws ClassAlreadyLoadedException {
+		return restore(pool, null);
+	}
+
+	/**
+	 * As restore(ClassProvider), but the cache is also required to have been written alongside the supplied output,
+	 * & the output must be unchanged since; so the Sanitizer is run whenever the output needs to be rewritten.
+	 *
+	 * @param pool
+	 * @param output the jar or folder the sanitized classes are expected to have been written into, or null if there's no such requirement.
+	 * @return true if the cache was restored, false if the Sanitizer needs to be run.
+	 * @throws ClassAlreadyLoadedException
+	 */
+	public boolean restore(ClassProvider pool, File output) throws ClassAlreadyLoadedException {
+		if(!file.isFile() || (output!=null && !output.exists())) {
+			return false;
+		}
+
+		final long start = System.nanoTime();
+
+		final List<String> classnames = new ArrayList<>();
+		final List<byte[]> classBytes = new ArrayList<>();
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1<<16))) {
+
+			if(in.readInt()!=MAGIC || in.readInt()!=FORMAT_VERSION) {
+				return false;
+			}
+			final byte[] storedKey = readHash(in);
+			in.readUTF();
+			if(!Arrays.equals(storedKey, key)) {
+				System.out.println("SanitizerCache is stale, the obfuscated jars will be sanitized.");
+				return false;
+			}
+
+			byte marker;
+			while((marker = in.readByte())==RECORD || marker==PACKAGE) {
+				if(marker==PACKAGE) {
+					in.readUTF();
+					in.readUTF();
+					continue;
+				}
+				// obfuscated name; only needed by consumers of the mappings.
+				in.readUTF();
+				final String newName = in.readUTF();
+
+				final int methodCount = in.readInt();
+				for(int i = 0;i < methodCount;i++) {
+					in.readUTF();
+					in.readUTF();
+					in.readUTF();
+					in.readUTF();
+				}
+				final int fieldCount = in.readInt();
+				for(int i = 0;i < fieldCount;i++) {
+					in.readUTF();
+					in.readUTF();
+					in.readUTF();
+				}
+				// the naming history; only needed by the next Sanitizer run.
+				in.readUTF();
+				in.readInt();
+				in.readInt();
+				readHash(in);
+				readHash(in);
+				readHash(in);
+
+				final byte[] bytes = new byte[in.readInt()];
+				in.readFully(bytes);
+
+				classnames.add(newName);
+				classBytes.add(bytes);
+			}
+
+			if(marker!=END) {
+				throw new IOException("corrupt record marker: " + marker);
+			}
+			final String outputKind = in.readUTF();
+			final String outputPath = in.readUTF();
+			final byte[] outputDigest = readHash(in);
+			if(in.readInt()!=MAGIC) {
+				throw new IOException("corrupt end marker");
+			}
+
+			if(output!=null && !(outputKind.equals(outputKind(output)) && outputPath.equals(output.getPath()) && Arrays.equals(outputDigest, digestOutput(output).asBytes()))) {
+				System.out.println("SanitizerCache wasn't written alongside the current " + output + ", the obfuscated jars will be sanitized.");
+				return false;
+			}
+		}
+		catch(IOException e) {
+			// a damaged cache isn't fatal; it'll be replaced by the Sanitizer run.
+			System.out.println("SanitizerCache could not be read: " + e);
+			return false;
+		}
+
+		for (int i = 0; i < classnames.size(); i++) {
+			pool.saveTransformation(Utils.InternalClassName.toBinaryName(classnames.get(i)), classBytes.get(i));
+		}
+
+		System.out.println("SanitizerCache restored " + classnames.size() + " classes in " + (System.nanoTime()-start)/1000000 + "ms");
+		return true;
+	}
+
+	/**
+	 * Reads the cache regardless of whether it matches the current inputs, so that a Sanitizer run can carry over the names of the classes that are unchanged.
+	 * The sanitized bytes are skipped over; only their position within the cache is recorded, so the few that can be reused are read as they're needed.
+	 *
+	 * @return the previous run, or null if there's no cache written by this version of SSME.
+	 */
+	SanitizerHistory readHistory() {
+		if(!file.isFile()) {
+			return null;
+		}
+
+		final long start = System.nanoTime();
+
+		final SanitizerHistory history = new SanitizerHistory(file);
+		try (CountingInputStream counter = new CountingInputStream(new BufferedInputStream(new FileInputStream(file), 1<<16));
+				DataInputStream in = new DataInputStream(counter)) {
+
+			if(in.readInt()!=MAGIC || in.readInt()!=FORMAT_VERSION) {
+				return null;
+			}
+			readHash(in);
+			// the sanitized bytes can only be carried over if they were produced by the same Sanitizer.
+			if(!in.readUTF().equals(StarsectorModExpander.VERSION)) {
+				return null;
+			}
+
+			byte marker;
+			while((marker = in.readByte())==RECORD || marker==PACKAGE) {
+				if(marker==PACKAGE) {
+					history.addPackage(in.readUTF(), in.readUTF());
+					continue;
+				}
+				final String oldName = in.readUTF();
+				in.readUTF();
+
+				final String[] methodNames = new String[in.readInt()];
+				for(int i = 0;i < methodNames.length;i++) {
+					in.readUTF();
+					in.readUTF();
+					in.readUTF();
+					methodNames[i] = emptyToNull(in.readUTF());
+				}
+				final String[] fieldNames = new String[in.readInt()];
+				for(int i = 0;i < fieldNames.length;i++) {
+					in.readUTF();
+					in.readUTF();
+					fieldNames[i] = emptyToNull(in.readUTF());
+				}
+				final String token = emptyToNull(in.readUTF());
+				final int methodCount = in.readInt();
+				final int fieldCount = in.readInt();
+				final HashCode fingerprint = HashCode.fromBytes(readHash(in));
+				final HashCode input = HashCode.fromBytes(readHash(in));
+				final HashCode environment = HashCode.fromBytes(readHash(in));
+
+				final int length = in.readInt();
+				final long offset = counter.getCount();
+				ByteStreams.skipFully(in, length);
+
+				history.add(new SanitizerHistory.Record(oldName, fingerprint, input, environment, token, methodNames, fieldNames, methodCount, fieldCount, offset, length));
+			}
+
+			if(marker!=END) {
+				throw new IOException("corrupt record marker: " + marker);
+			}
+			// the output the cache was written alongside; of no relevance to the history.
+			in.readUTF();
+			in.readUTF();
+			readHash(in);
+			if(in.readInt()!=MAGIC) {
+				throw new IOException("corrupt end marker");
+			}
+		}
+		catch(IOException | IllegalArgumentException e) {
+			System.out.println("SanitizerCache history could not be read: " + e);
+			return null;
+		}
+
+		System.out.println("SanitizerCache history read in " + (System.nanoTime()-start)/1000000 + "ms");
+		return history;
+	}
+
+	private static byte[] readHash(DataInputStream in) throws IOException {
+		final byte[] hash = new byte[in.readUnsignedByte()];
+		in.readFully(hash);
+		return hash;
+	}
+
+	private void writeHash(HashCode hash) throws IOException {
+		final byte[] bytes = hash.asBytes();
+		out.writeByte(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String outputKind(File output) {
+		return output.isDirectory() ? FOLDER_OUTPUT : ARCHIVE_OUTPUT;
+	}
+
+	/**
+	 * Taken on every launch, so the content of the output is only read where there's no cheaper way to tell whether it's changed:
+	 * a folder written in sync mode is described by its manifest (the content hash of every file written into it),
+	 * & otherwise the path, size & modification time of every file are digested.
+	 * 
+	 * @param output a jar, or a folder of class files.
+	 * @return digest of the output.
+	 * @throws IOException
+	 */
+	private static HashCode digestOutput(File output) throws IOException {
+		final long start = System.nanoTime();
+
+		final Hasher hasher = Hashing.sha1().newHasher();
+		final File manifest = SanitizedWriter.getManifestFile(output);
+		if(output.isDirectory() && manifest.isFile()) {
+			hasher.putString("manifest", StandardCharsets.UTF_8);
+			hasher.putBytes(Files.readAllBytes(manifest.toPath()));
+			return hasher.hash();
+		}
+
+		final Path root = output.toPath();
+		final Map<String, BasicFileAttributes> files = new TreeMap<>();
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				if(attrs.isRegularFile()) {
+					// sorted, as the walk order isn't something we want to depend upon.
+					files.put(root.relativize(file).toString().replace(File.separatorChar, '/'), attrs);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+
+		boolean timed = true;
+		for (BasicFileAttributes attrs : files.values()) {
+			timed &= attrs.lastModifiedTime().toMillis()!=0;
+		}
+
+		// only if the file system doesn't keep modification times is the content itself read.
+		hasher.putString(timed ? "metadata" : "content", StandardCharsets.UTF_8);
+		for (Entry<String, BasicFileAttributes> file : files.entrySet()) {
+			hasher.putString(file.getKey(), StandardCharsets.UTF_8);
+			hasher.putLong(file.getValue().size());
+			if(timed) {
+				hasher.putLong(file.getValue().lastModifiedTime().toMillis());
+			}
+			else {
+				hasher.putBytes(Files.readAllBytes(root.resolve(file.getKey())));
+			}
+		}
+		final HashCode digest = hasher.hash();
+
+		System.out.println("SanitizerCache digest of " + files.size() + " files in " + output + " took: " + (System.nanoTime()-start)/1000000 + "ms");
+		return digest;
+	}
+
+	private static String emptyToNull(String s) {
+		return s.isEmpty() ? null : s;
+	}
+
+	private static String nullToEmpty(String s) {
+		return s==null ? "" : s;
+	}
+
+	/**
+	 * Starts recording a new cache.
+	 * The existing cache is left untouched until complete() is called.
+	 * @throws IOException
+	 */
+	void begin() throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile), 1<<16));
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		out.writeByte(key.length);
+		out.write(key);
+		out.writeUTF(StarsectorModExpander.VERSION);
+	}
+
+	/**
+	 * Records a sanitized class.
+	 *
+	 * @param cm Mapping of the class (its names must already be resolved)
+	 * @param bytes The sanitized bytes of the class.
+	 * @throws IOException
+	 */
+	void addClass(ClassMapping cm, byte[] bytes) throws IOException {
+		out.writeByte(RECORD);
+		out.writeUTF(cm.getName());
+		out.writeUTF(cm.getNewName());
+
+		final ClassMapping.Method[] methods = cm.getMethods();
+		final MethodTable methodMap = cm.getMethodTable();
+		out.writeInt(methods.length);
+		for (int i = 0; i < methods.length; i++) {
+			final ClassMapping.Method method = methods[i];
+			out.writeUTF(method.oldName);
+			out.writeUTF(method.desc);
+			out.writeUTF(methodMap.get(method.oldName, method.desc));
+			out.writeUTF(nullToEmpty(cm.getGeneratedMethodName(i)));
+		}
+
+		final ClassMapping.Field[] fields = cm.getFields();
+		final Map<String, String> fieldMap = cm.getFieldMap();
+		out.writeInt(fields.length);
+		for (int i = 0; i < fields.length; i++) {
+			final ClassMapping.Field field = fields[i];
+			out.writeUTF(field.oldName);
+			out.writeUTF(fieldMap.get(field.oldName));
+			out.writeUTF(nullToEmpty(cm.getGeneratedFieldName(i)));
+		}
+
+		out.writeUTF(nullToEmpty(cm.getGeneratedToken()));
+		out.writeInt(cm.getMethodCount());
+		out.writeInt(cm.getFieldCount());
+		writeHash(cm.getFingerprint());
+		writeHash(cm.getInputDigest());
+		writeHash(cm.getEnvironmentDigest());
+
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	/**
+	 * Records a package element generated by the Sanitizer.
+	 *
+	 * @param obfuscatedPath the obfuscated package path, up to & including the element that was replaced.
+	 * @param generatedElement
+	 * @throws IOException
+	 */
+	void addPackage(String obfuscatedPath, String generatedElement) throws IOException {
+		out.writeByte(PACKAGE);
+		out.writeUTF(obfuscatedPath);
+		out.writeUTF(generatedElement);
+	}
+
+	/**
+	 * Finishes the cache, replacing any previous one.
+	 * @param output the jar or folder the sanitized classes have been written into, or null if they weren't written. Must be complete.
+	 * @throws IOException
+	 */
+	void complete(File output) throws IOException {
+		out.writeByte(END);
+		if(output==null) {
+			out.writeUTF(NO_OUTPUT);
+			out.writeUTF("");
+			out.writeByte(0);
+		}
+		else {
+			out.writeUTF(outputKind(output));
+			out.writeUTF(output.getPath());
+			writeHash(digestOutput(output));
+		}
+		out.writeInt(MAGIC);
+		out.close();
+		out = null;
+
+		try {
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch(AtomicMoveNotSupportedException e) {
+			Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Abandons the cache being recorded; the previous cache (if any) remains in place.
+	 */
+	void abort() {
+		if(out!=null) {
+			try {
+				out.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			out = null;
+		}
+		tempFile.delete();
+	}
+}
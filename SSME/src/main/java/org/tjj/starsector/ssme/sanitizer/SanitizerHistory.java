@@ -0,0 +1,297 @@
+package org.tjj.starsector.ssme.sanitizer;
+
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.google.common.hash.HashCode;
+
+/**
+ * The names (& output) of the previous Sanitizer run, as recorded in its SanitizerCache.
+ *
+ * When the game is updated, the classes whose structural fingerprint is unchanged are matched up with their previous records,
+ * so they keep the names they were given last time; and only the classes that have changed, or whose hierarchy has changed, are named afresh.
+ * The numbers held by the matched classes are reserved, so the fresh names are drawn around them rather than colliding with them.
+ *
+ * Where several classes share a fingerprint (e.g. trivial anonymous classes) they're only matched if there are as many of them as before,
+ * in which case they're paired up in name order.
+ *
+ */
+public class SanitizerHistory {
+
+	// the counters whose numbers can be reserved
+	static final int PACKAGE = 0;
+	static final int CLASS = 1;
+	static final int ENUM = 2;
+	static final int INTERFACE = 3;
+	static final int INTERFACE_METHOD = 4;
+
+	static final String PACKAGE_PREFIX = "package";
+	static final String CLASS_PREFIX = "Class";
+	static final String ENUM_PREFIX = "Enum";
+	static final String INTERFACE_PREFIX = "Interface";
+	static final String INTERFACE_METHOD_INFIX = "InterfaceMethod";
+
+	/**
+	 * The previous record of a class.
+	 */
+	static class Record {
+		final String oldName;
+		final HashCode fingerprint;
+		/**
+		 * hash of the obfuscated bytes the class was rewritten from.
+		 */
+		final HashCode input;
+		final HashCode environment;
+		/**
+		 * the generated part of the class' name, e.g. "Class12"; or null if its name wasn't generated.
+		 */
+		final String token;
+		/**
+		 * the generated names of the methods & fields, in declaration order; null where the name wasn't generated.
+		 */
+		final String[] methodNames;
+		final String[] fieldNames;
+		/**
+		 * the method & field counts the class left for its subclasses to number from.
+		 */
+		final int methodCount;
+		final int fieldCount;
+
+		/**
+		 * where the sanitized bytes are within the cache; they're only read if they can be reused.
+		 */
+		final long offset;
+		final int length;
+
+		Record(String oldName, HashCode fingerprint, HashCode input, HashCode environment, String token, String[] methodNames, String[] fieldNames, int methodCount, int fieldCount, long offset, int length) {
+			this.oldName = oldName;
+			this.fingerprint = fingerprint;
+			this.input = input;
+			this.environment = environment;
+			this.token = token;
+			this.methodNames = methodNames;
+			this.fieldNames = fieldNames;
+			this.methodCount = methodCount;
+			this.fieldCount = fieldCount;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * the cache the history was read from.
+	 */
+	private final File file;
+	private FileChannel channel;
+	private boolean closed;
+
+	private final Map<HashCode, List<Record>> records = new LinkedHashMap<>();
+	private int recordCount;
+
+	/**
+	 * the generated package elements, keyed by the obfuscated package path they replaced.
+	 */
+	private final Map<String, String> packages = new HashMap<>();
+
+	private final BitSet[] reserved = new BitSet[INTERFACE_METHOD+1];
+
+	SanitizerHistory(File file) {
+		this.file = file;
+		for (int i = 0; i < reserved.length; i++) {
+			reserved[i] = new BitSet();
+		}
+	}
+
+	void add(Record record) {
+		List<Record> sameFingerprint = records.get(record.fingerprint);
+		if(sameFingerprint==null) {
+			sameFingerprint = new ArrayList<>(1);
+			records.put(record.fingerprint, sameFingerprint);
+		}
+		sameFingerprint.add(record);
+		recordCount++;
+	}
+
+	void addPackage(String obfuscatedPath, String generatedElement) {
+		packages.put(obfuscatedPath, generatedElement);
+		final int number = numberOf(generatedElement, PACKAGE_PREFIX);
+		if(number>=0) {
+			// as the package paths aren't known until the classes are named, every previous package number is held back.
+			reserved[PACKAGE].set(number);
+		}
+	}
+
+	/**
+	 * Pairs the classes of the working set with their previous records, and reserves the numbers of the paired records.
+	 * Must be called before any names have been resolved.
+	 *
+	 * @param classes the working set, in name order.
+	 * @return the number of classes paired.
+	 */
+	int match(ClassMapping[] classes) {
+		final Map<HashCode, List<ClassMapping>> current = new HashMap<>();
+		for (ClassMapping cm : classes) {
+			final HashCode fingerprint = cm.getFingerprint();
+			List<ClassMapping> sameFingerprint = current.get(fingerprint);
+			if(sameFingerprint==null) {
+				sameFingerprint = new ArrayList<>(1);
+				current.put(fingerprint, sameFingerprint);
+			}
+			sameFingerprint.add(cm);
+		}
+
+		int matched = 0;
+		for (Entry<HashCode, List<Record>> entry : records.entrySet()) {
+			final List<Record> previous = entry.getValue();
+			final List<ClassMapping> now = current.get(entry.getKey());
+			if(now==null || now.size()!=previous.size()) {
+				continue;
+			}
+			for (int i = 0; i < previous.size(); i++) {
+				final Record record = previous.get(i);
+				final ClassMapping cm = now.get(i);
+				if(record.methodNames.length!=cm.getMethods().length || record.fieldNames.length!=cm.getFields().length) {
+					// can't happen unless the fingerprint collides.
+					continue;
+				}
+				cm.setPrevious(record);
+				reserve(record, ClassMapping.checkAccess(ClassMapping.ACC_INTERFACE, cm.getAccess()));
+				matched++;
+			}
+		}
+		System.out.println("SanitizerHistory matched " + matched + " of " + classes.length + " classes with the " + recordCount + " of the previous run");
+		return matched;
+	}
+
+	private void reserve(Record record, boolean isInterface) {
+		if(record.token!=null) {
+			int number;
+			if((number = numberOf(record.token, INTERFACE_PREFIX))>=0) {
+				reserved[INTERFACE].set(number);
+			}
+			else if((number = numberOf(record.token, ENUM_PREFIX))>=0) {
+				reserved[ENUM].set(number);
+			}
+			else if((number = numberOf(record.token, CLASS_PREFIX))>=0) {
+				reserved[CLASS].set(number);
+			}
+		}
+		if(isInterface) {
+			for (String methodName : record.methodNames) {
+				if(methodName!=null) {
+					final int infix = methodName.lastIndexOf(INTERFACE_METHOD_INFIX);
+					if(infix>=0) {
+						final int number = numberOf(methodName.substring(infix), INTERFACE_METHOD_INFIX);
+						if(number>=0) {
+							reserved[INTERFACE_METHOD].set(number);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 *
+	 * @param counter one of PACKAGE, CLASS, ENUM, INTERFACE or INTERFACE_METHOD
+	 * @param number
+	 * @return true if the number is held by a class paired with its previous record.
+	 */
+	boolean isReserved(int counter, int number) {
+		return reserved[counter].get(number);
+	}
+
+	/**
+	 *
+	 * @param obfuscatedPath path of the obfuscated package, up to & including the element being named. e.g. "com/fs/a"
+	 * @return the element generated for the package by the previous run, or null if there wasn't one.
+	 */
+	String getPackageElement(String obfuscatedPath) {
+		return packages.get(obfuscatedPath);
+	}
+
+	/**
+	 * The previous bytes of a class can be reused if it was rewritten from the same bytes, and every mapping its rewrite depends upon is unchanged.
+	 * Only then are the bytes read from the cache.
+	 * May be called from any thread, until the history is closed.
+	 *
+	 * @param cm a class whose input & environment digests have been taken.
+	 * @return the sanitized bytes of the previous run, or null if the class must be rewritten.
+	 */
+	byte[] takeReusableBytes(ClassMapping cm, HashCode input, HashCode environment) {
+		final Record record = cm.getPrevious();
+		if(record==null || !record.input.equals(input) || !record.environment.equals(environment)) {
+			return null;
+		}
+		try {
+			final FileChannel channel = getChannel();
+			if(channel==null) {
+				return null;
+			}
+			final byte[] bytes = new byte[record.length];
+			final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			// positional reads don't disturb one another, so the rewriters needn't take turns.
+			while(buffer.hasRemaining()) {
+				if(channel.read(buffer, record.offset + buffer.position())<0) {
+					throw new EOFException();
+				}
+			}
+			return bytes;
+		}
+		catch(IOException e) {
+			// it'll simply be rewritten.
+			System.out.println("SanitizerHistory could not read the previous bytes of " + record.oldName + ": " + e);
+			return null;
+		}
+	}
+
+	private synchronized FileChannel getChannel() throws IOException {
+		if(channel==null && !closed) {
+			channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		}
+		return channel;
+	}
+
+	/**
+	 * Releases the cache file, which must be done before it's replaced. No bytes can be taken afterwards.
+	 */
+	synchronized void close() {
+		closed = true;
+		if(channel!=null) {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			channel = null;
+		}
+	}
+
+	/**
+	 *
+	 * @param name
+	 * @param prefix
+	 * @return the number following the prefix, or -1 if the name isn't the prefix followed by a number.
+	 */
+	static int numberOf(String name, String prefix) {
+		if(!name.startsWith(prefix) || name.length()==prefix.length() || name.length()-prefix.length()>9) {
+			return -1;
+		}
+		final String number = name.substring(prefix.length());
+		if(!IdentifierClassifier.isAllNumbers(number)) {
+			return -1;
+		}
+		return Integer.parseInt(number);
+	}
+}